@@ -1,10 +1,29 @@
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 import model.MyScanner;
+import model.OffHeapSymbolTable;
 
+/*
+ * Usage: java Main [--off-heap]
+ * With --off-heap the symbol table is kept in output/st.idx and output/st.dat (see OffHeapSymbolTable) instead of the Java heap;
+ * the files of a previous run are deleted first, so the table only has the symbols of this program.
+ */
 public class Main {
 
 	public static void main(String[] args) throws IOException {
+		if (args.length > 0 && args[0].equals("--off-heap")) {
+			Files.deleteIfExists(Paths.get("output/st.idx"));
+			Files.deleteIfExists(Paths.get("output/st.dat"));
+			try (OffHeapSymbolTable symbolTable = OffHeapSymbolTable.open(Paths.get("output/st"), 97)) {
+				MyScanner scanner = new MyScanner("input/p2.txt", symbolTable);
+				scanner.scanner();
+				scanner.tokensClasification();
+				scanner.writeSymbolTable();
+			}
+			return;
+		}
 		MyScanner scanner = new MyScanner("input/p2.txt");
         scanner.scanner();
         scanner.tokensClasification();
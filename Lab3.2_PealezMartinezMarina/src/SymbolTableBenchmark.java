@@ -0,0 +1,70 @@
+import java.util.Random;
+
+import model.HashedSymbolTable;
+import model.MySymbolTable;
+
+/*
+ * Microbenchmark of MySymbolTable against HashedSymbolTable on a scanner-like workload: a stream of tokens where
+ * every symbol appears several times (insertOrGet of new and existing symbols), followed by lookups of present and missing symbols.
+ * Both tables start with the scanner's capacity (97) and grow as needed. Each round is run several times and the first rounds
+ * are only warm-up for the JIT.
+ * Usage: java SymbolTableBenchmark [distinct symbols] [tokens]
+ */
+public class SymbolTableBenchmark {
+
+	public static void main(String[] args) {
+		int distinct = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+		int tokens = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+		Random random = new Random(42);
+		String[] symbols = new String[distinct];
+		for (int i = 0; i < distinct; i++) {
+			symbols[i] = "id_" + Integer.toString(random.nextInt(Integer.MAX_VALUE), 36) + "_" + i;
+		}
+		String[] stream = new String[tokens];
+		for (int i = 0; i < tokens; i++) {
+			stream[i] = new String(symbols[random.nextInt(distinct)]); // Different objects, as the lexer creates them.
+		}
+		String[] missing = new String[tokens];
+		for (int i = 0; i < tokens; i++) {
+			missing[i] = "missing_" + i;
+		}
+
+		System.out.printf("%d distinct symbols, %d tokens%n", distinct, tokens);
+		for (int round = 0; round < 8; round++) {
+			boolean warmUp = round < 3;
+			long checksum = 0;
+
+			long start = System.nanoTime();
+			MySymbolTable current = new MySymbolTable(97);
+			for (String token : stream) {
+				checksum += current.insertOrGet(token);
+			}
+			long currentInsert = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < tokens; i++) {
+				checksum += current.find(stream[i]) + current.find(missing[i]);
+			}
+			long currentFind = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			HashedSymbolTable hashed = new HashedSymbolTable(97);
+			for (String token : stream) {
+				checksum += hashed.insertOrGet(token);
+			}
+			long hashedInsert = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int i = 0; i < tokens; i++) {
+				checksum += hashed.find(stream[i]) + hashed.find(missing[i]);
+			}
+			long hashedFind = System.nanoTime() - start;
+
+			if (!warmUp) {
+				System.out.printf("MySymbolTable:     insertOrGet %6.1f ns/op, find %6.1f ns/op (size %d)%n",
+						(double) currentInsert / tokens, (double) currentFind / (2.0 * tokens), current.getSize());
+				System.out.printf("HashedSymbolTable: insertOrGet %6.1f ns/op, find %6.1f ns/op (size %d)   [%d]%n",
+						(double) hashedInsert / tokens, (double) hashedFind / (2.0 * tokens), hashed.getSize(), checksum & 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package model;
+
+/*
+ * Variant of MySymbolTable tuned for probing, with the same operations:
+ * - The hash of a symbol is computed once per operation and stored next to it (hashes[]), so a probe compares two ints
+ *   and only calls String.equals when the hashes are the same.
+ * - The size is a power of two and the position is taken from the mixed hash with a mask instead of %.
+ *   The mixer spreads the bits of String.hashCode(), whose low bits are too regular for a mask on their own.
+ * - Quadratic probing (1, 2, 3... positions further each time), which visits every position of a power-of-two table and avoids
+ *   the long clusters of linear probing. Unlike Robin Hood hashing, it never moves an element after inserting it, so positions
+ *   stay valid until the table grows (getResizeCount() changes), as the scanner needs for the PIF.
+ * The table grows (doubles) when the number of elements goes over loadFactor * size.
+ */
+public class HashedSymbolTable {
+	public static final double DEFAULT_LOAD_FACTOR = 0.7;
+
+	private String[] table;
+	private int[] hashes; // Mixed hash of the element in the same position.
+	private int mask; // size - 1.
+	private int numberOfElements;
+	private final double loadFactor;
+	private int threshold;
+	private int resizeCount;
+
+	public HashedSymbolTable(int n) {
+		this(n, DEFAULT_LOAD_FACTOR);
+	}
+
+	public HashedSymbolTable(int n, double loadFactor) {
+		if (loadFactor <= 0 || loadFactor > 1) {
+			throw new IllegalArgumentException("Load factor must be in (0, 1]: " + loadFactor);
+		}
+		this.loadFactor = loadFactor;
+		allocate(powerOfTwo(n));
+	}
+
+	public String[] getSymbolTable() {
+		return table;
+	}
+
+	public int getNumberOfElements() {
+		return numberOfElements;
+	}
+
+	public int getSize() {
+		return table.length;
+	}
+
+	public int getResizeCount() {
+		return resizeCount;
+	}
+
+	/*
+	 * Returns 0 if the element was inserted, -1 if it was already in the table and -2 if it is null.
+	 */
+	public int insert(String i) {
+		if (i == null) {
+			return -2;
+		}
+		int before = numberOfElements;
+		insertOrGet(i);
+		return numberOfElements > before ? 0 : -1;
+	}
+
+	/*
+	 * Returns the position of the element, inserting it first if it is not in the table (-2 if it is null).
+	 */
+	public int insertOrGet(String i) {
+		if (i == null) {
+			return -2;
+		}
+		int hash = mix(i.hashCode());
+		int position = hash & mask;
+		for (int step = 1; table[position] != null; step++) {
+			if (hashes[position] == hash && table[position].equals(i)) {
+				return position;
+			}
+			position = (position + step) & mask;
+		}
+		if (numberOfElements + 1 > threshold) {
+			grow();
+			position = emptyPosition(hash);
+		}
+		table[position] = i;
+		hashes[position] = hash;
+		numberOfElements++;
+		return position;
+	}
+
+	/*
+	 * Returns the position of the element, or -1 if it is not in the table (or it is null).
+	 */
+	public int find(String i) {
+		if (i == null) {
+			return -1;
+		}
+		int hash = mix(i.hashCode());
+		int position = hash & mask;
+		for (int step = 1; table[position] != null; step++) {
+			if (hashes[position] == hash && table[position].equals(i)) {
+				return position;
+			}
+			position = (position + step) & mask;
+		}
+		return -1;
+	}
+
+	public String toString() {
+		StringBuilder stringChain = new StringBuilder();
+		for (int i = 0; i < getSize(); i++) {
+			stringChain.append(table[i] == null ? "-" : table[i]);
+			stringChain.append(";");
+		}
+		stringChain.append("[Size: ");
+		stringChain.append(getSize());
+		stringChain.append(" Num.Elems.: ");
+		stringChain.append(getNumberOfElements());
+		stringChain.append("]");
+		return stringChain.toString();
+	}
+
+	/*
+	 * Doubles the table; the stored hashes are reused, so no String.hashCode() or equals is called.
+	 */
+	private void grow() {
+		String[] oldTable = table;
+		int[] oldHashes = hashes;
+		allocate(oldTable.length * 2);
+		for (int p = 0; p < oldTable.length; p++) {
+			if (oldTable[p] != null) {
+				int position = emptyPosition(oldHashes[p]);
+				table[position] = oldTable[p];
+				hashes[position] = oldHashes[p];
+			}
+		}
+		resizeCount++;
+	}
+
+	private int emptyPosition(int hash) {
+		int position = hash & mask;
+		for (int step = 1; table[position] != null; step++) {
+			position = (position + step) & mask;
+		}
+		return position;
+	}
+
+	private void allocate(int size) {
+		table = new String[size];
+		hashes = new int[size];
+		mask = size - 1;
+		threshold = Math.min(size - 1, (int) (size * loadFactor));
+	}
+
+	/*
+	 * Multiplies by the golden ratio constant and folds the high bits down, so every bit of the hash code affects the low bits.
+	 */
+	private static int mix(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int powerOfTwo(int n) {
+		int size = 2;
+		while (size < n && size < (1 << 30)) {
+			size <<= 1;
+		}
+		return size;
+	}
+}
@@ -0,0 +1,196 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/*
+ * Character-level lexer: reads the source once through its own buffer and splits it into lexemes by maximal munch.
+ * - Whitespace separates lexemes and is skipped.
+ * - A word starts with a letter or a digit and goes on while there are letters, digits or underscores (identifiers,
+ *   reserved words, numbers, and wrong words like 48a, which the classification reports).
+ * - A string ("...") or char ('...') constant goes up to the closing quote, quotes included, and may contain spaces or line breaks.
+ * - A minus followed by a digit starts a negative integer constant (-5 is one lexeme, read like a word) when the previous lexeme
+ *   cannot end an operand: anything but an identifier, a constant, ')' or ']'. After an operand (x-5, f(x)-5) it is the operator.
+ * - Any other lexeme is the longest operator or separator of the TokenTrie that starts there; a character that
+ *   does not start any of them is a lexeme by itself (the classification reports it as an error).
+ * Usage: while (lexer.next()) { lexer.getLexeme(), lexer.getCode(), lexer.getLine(), lexer.getColumn() }.
+ * Lines and columns start at 1 and are those of the first character of the lexeme.
+ */
+
+public class Lexer {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Reader reader;
+	private final TokenTrie tokens; // Reserved words, operators and separators.
+	private final int lookahead; // Characters needed in the buffer to match the longest token of the trie.
+
+	private char[] buffer;
+	private int position; // Next character to read.
+	private int limit; // End of the characters read into the buffer.
+	private int start; // Start of the current lexeme (nothing before it is kept when the buffer is refilled).
+
+	private int line;
+	private int column;
+	private int lexemeLine;
+	private int lexemeColumn;
+
+	private char unclosedQuote; // Quote of a constant that was not closed before the end of the input (0 if there is none).
+	private int unclosedQuoteLine;
+
+	private boolean afterOperand; // True if the last lexeme was an identifier, a constant, ')' or ']' (a minus after it is the operator).
+
+	public Lexer(Reader reader, TokenTrie tokens) {
+		this.reader = reader;
+		this.tokens = tokens;
+		this.lookahead = Math.max(1, tokens.maxLength());
+		this.buffer = new char[BUFFER_SIZE];
+		this.line = 1;
+		this.column = 1;
+	}
+
+	/*
+	 * Moves to the next lexeme. Returns false at the end of the input.
+	 */
+	public boolean next() throws IOException {
+		// Whitespace.
+		while (true) {
+			if (position == limit) {
+				start = position;
+				if (!fill()) {
+					return false;
+				}
+			}
+			char c = buffer[position];
+			if (c == '\n') {
+				line++;
+				column = 1;
+			} else if (c <= ' ') {
+				column++;
+			} else {
+				break;
+			}
+			position++;
+		}
+
+		start = position;
+		lexemeLine = line;
+		lexemeColumn = column;
+		char c = buffer[position];
+		if (c == '-' && !afterOperand && (position + 1 < limit || fill()) && isDigit(buffer[position + 1])) {
+			position += 2;
+			while ((position < limit || fill()) && isWordChar(buffer[position])) {
+				position++;
+			}
+			column += position - start;
+			afterOperand = true;
+		} else if (isLetter(c) || isDigit(c)) {
+			position++;
+			while ((position < limit || fill()) && isWordChar(buffer[position])) {
+				position++;
+			}
+			column += position - start;
+			afterOperand = tokens.codeOf(buffer, start, position) < 0; // Reserved words are not operands.
+		} else if (c == '"' || c == '\'') {
+			position++;
+			column++;
+			boolean closed = false;
+			while (position < limit || fill()) {
+				char d = buffer[position++];
+				if (d == '\n') {
+					line++;
+					column = 1;
+				} else {
+					column++;
+				}
+				if (d == c) {
+					closed = true;
+					break;
+				}
+			}
+			if (!closed) {
+				unclosedQuote = c;
+				unclosedQuoteLine = lexemeLine;
+				return false;
+			}
+			afterOperand = true;
+		} else {
+			while (limit - position < lookahead && fill()) {
+			}
+			position += Math.max(1, tokens.longestMatch(buffer, position, limit));
+			column += position - start;
+			afterOperand = position - start == 1 && (c == ')' || c == ']');
+		}
+		return true;
+	}
+
+	/*
+	 * Reads more characters, keeping the current lexeme (moved to the start of the buffer, which grows if the lexeme fills it).
+	 * Returns false if the input has ended.
+	 */
+	private boolean fill() throws IOException {
+		if (start > 0) {
+			System.arraycopy(buffer, start, buffer, 0, limit - start);
+			position -= start;
+			limit -= start;
+			start = 0;
+		}
+		if (limit == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+		int read = reader.read(buffer, limit, buffer.length - limit);
+		if (read <= 0) {
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isWordChar(char c) {
+		return isLetter(c) || isDigit(c) || c == '_';
+	}
+
+	// GETTERS (of the current lexeme):
+
+	public String getLexeme() {
+		return new String(buffer, start, position - start);
+	}
+
+	/*
+	 * Code of the lexeme in the TokenTrie (reserved word, operator or separator), or -1 for identifiers, constants and errors.
+	 */
+	public int getCode() {
+		return tokens.codeOf(buffer, start, position);
+	}
+
+	public int getLength() {
+		return position - start;
+	}
+
+	public int getLine() {
+		return lexemeLine;
+	}
+
+	public int getColumn() {
+		return lexemeColumn;
+	}
+
+	/*
+	 * After next() returned false: the quote (" or ') of a constant that was not closed, or 0 if every constant was closed.
+	 */
+	public char getUnclosedQuote() {
+		return unclosedQuote;
+	}
+
+	public int getUnclosedQuoteLine() {
+		return unclosedQuoteLine;
+	}
+}
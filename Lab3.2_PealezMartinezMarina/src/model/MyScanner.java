@@ -1,8 +1,13 @@
 package model;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
@@ -16,29 +21,25 @@ public class MyScanner {
 	private String fileName;
 	
 	private List<String> tokenList ;
-	private List<String> separatorList;
-	private List<String> specialRelational;
-	private List<String> regularRelational;
+	private TokenTrie tokenIndex; // Reserved words, operators and separators of tokenList, with their position in tokenList as code.
 	
-	private int currentLine;
 	private int capacity;
 	private MySymbolTable ST;
+	private OffHeapSymbolTable offHeapST; // If it is not null, identifiers and constants go to this table instead of ST.
 	private List<Pair<String, Integer>> PIF;
 	
 	private boolean isStringLexicallyCorrect;
 	private boolean isCharLexicallyCorrect;
-	private String stringConstant = "";
-	private String charConstant = "";
+	private int unclosedQuoteLine;
 
 
 /*
  * Constructor: 
- * - Initializes various data structures and variables, including lists for tokens, separators, and relational operators.
- * - Reads tokens and separators/operators from the "input/token.in" file.
+ * - Initializes various data structures and variables, including the list of tokens and its index.
+ * - Reads tokens (reserved words, separators and operators) from the "input/token.in" file.
  */
 	public MyScanner(String fileName) {
 		this.fileName=fileName;
-		this.currentLine=0;
 		this.capacity=97;
 		
 		this.isStringLexicallyCorrect = true;
@@ -47,25 +48,26 @@ public class MyScanner {
 		this.ST = new MySymbolTable(capacity);
 		this.PIF = new ArrayList<>();
 		this.tokenList = new ArrayList<String>();
-		this.separatorList = new ArrayList<String>();
-		this.specialRelational = new ArrayList<String>();
-		this.regularRelational  = new ArrayList<String>();		
-		
-		this.specialRelational.add(">=");
-	    this.specialRelational.add("<=");
-	    this.specialRelational.add("==");
-	    this.regularRelational.add(">");
-	    this.regularRelational.add("<");
+		this.tokenIndex = new TokenTrie();
 		// Read tokens:
 		this.readTokens();
-		this.readSeparatorsOperators();
+	}
+
+/*
+ * Constructor with an off-heap symbol table: identifiers and constants are stored in the memory-mapped files of offHeapST
+ * instead of the in-memory ST, and their positions in the PIF are offsets in its arena (they never change).
+ * The caller opens and closes the table.
+ */
+	public MyScanner(String fileName, OffHeapSymbolTable offHeapST) {
+		this(fileName);
+		this.offHeapST = offHeapST;
 	}
 	
 	// HELPER METHODS:
 
 	/*
-	 * readTokens() and readSeparatorsOperators(): 
-	 * Read tokens and separators/operators from the "input/token.in" file, filling the corresponding lists.
+	 * readTokens(): 
+	 * Reads the tokens from the "input/token.in" file, filling tokenList and adding every token to tokenIndex with its position as code.
 	 */
 	private void readTokens() {
 	       try {
@@ -73,6 +75,7 @@ public class MyScanner {
 	          Scanner myReader = new Scanner(myObj);
 	          while (myReader.hasNextLine()) {
 	             String data = myReader.nextLine();
+	             tokenIndex.add(data, tokenList.size());
 	             tokenList.add(data);
 	          }
 	          myReader.close();
@@ -82,25 +85,11 @@ public class MyScanner {
 	       }
 	    }
 
-	private void readSeparatorsOperators() {
-	       try {
-	          File myObj = new File("input/token.in");
-	          Scanner myReader = new Scanner(myObj);
-	          for (int i = 0; i < 24; i++){
-	             String data = myReader.nextLine();
-	             separatorList.add(data);
-	          }
-	          myReader.close();
-	       } catch (FileNotFoundException e) {
-	          System.out.println("An error occurred.");
-	          e.printStackTrace();
-	       }
-	    }
-
 
 		/*
 		 * isConstant(), isIdentifier(), isStringConstant(), isCharConstant(): 
 		 * - Check if a given token is a constant, identifier, string constant or char constant.
+		 * They are hand-coded DFAs (see TokenClassifier) that read the token once, so no Pattern is compiled for every token of the PIF.
 		 * "\\-?[1-9]+[0-9]*|0"   :
 		 * 		\\-?: Matches an optional negative sign.
 		 * 		[1-9]+: Matches one or more digits from 1 to 9 (ensuring that the number is not a leading zero).
@@ -113,10 +102,7 @@ public class MyScanner {
 		 * 		\": Matches the closing double quote.
 		 */
 	private Boolean isConstant(String token) {
-        return token.matches("\\-?[1-9]+[0-9]*|0")
-                || token.matches("\"[a-zA-Z0-9 _]+\"");
-                /*|| token.equals("True")
-                || token.equals("False");*/
+        return TokenClassifier.isConstant(token);
     }
 
 	/*
@@ -127,49 +113,56 @@ public class MyScanner {
 	 * 		[a-zA-Z0-9 _]*: Matches zero or more additional characters, which can be letters (lowercase or uppercase), digits, underscores, or spaces.
 	 */
     private Boolean isIdentifier(String token){
-        return token.matches("(^[a-zA-Z][a-zA-Z0-9 _]*)");
+        return TokenClassifier.isIdentifier(token);
     }
 
 	/*
-	 * Checks if the first character of the token is a double quote (") and if the second-to-last character -penúltimo- (at index token.length() - 2) is also a double quote. 
+	 * Checks if the first and the last characters of the token are double quotes (") (the lexer returns the string with its quotes). 
 	 * This is done to verify that the token is enclosed in double quotes.
-	 * If the token passes the check in step 1, the method then extracts the substring between the first and second-to-last characters (excluding the enclosing double quotes). 
-	 * This substring is stored in the variable withoutQuote.
-	 * False if: the initial check fails or the length of the substring is not greater than 1.
+	 * The text between the quotes must have more than one character.
+	 * False if: the initial check fails or the text between the quotes is not longer than 1.
 	 */
     private Boolean isStringConstant(String token) {
-        if (token.charAt(0) == '"' && token.charAt(token.length() - 2) == '"') {
-            String withoutQuote = token.substring(1, token.length() - 2);
-            return withoutQuote.length() > 1;
-        } else {
-            return false; //if the token does not match the pattern
-        }
+        return TokenClassifier.isStringConstant(token);
     }
 
 
 	/*(
-	 * Makes the exact same check as the previous one but instead of "", '' (simple ones).
+	 * Makes the exact same check as the previous one but instead of "", '' (simple ones), and at most one character between them.
 	 */
     private Boolean isCharConstant(String token) {
-        if (String.valueOf(token.charAt(0)).equals("'") && String.valueOf(token.charAt(token.length() - 2)).equals("'")) {
-            String withoutQuote = token.substring(1, token.length() - 2);
-            return withoutQuote.length() <= 1;
-        } else {
-            return false;
-        }
+        return TokenClassifier.isCharConstant(token);
     }
 
 	/*
 	 * Check if a given token is a reserved operator (p.e. +, -, =, <) or separator (p.e. [] ; {}).
-	 * tokenList contains reserved opertatos and separators. So if it is equal it returns true, false in other case.
+	 * tokenIndex contains reserved words, operators and separators. So if it has a code it returns true, false in other case.
 	 */
     private Boolean isReservedOperatorSeparator(String myToken) {
-        for (String token : this.tokenList) {
-            if (myToken.equals(token)) {
-                return true;
-            }
-        }
-        return false;
+        return getTokenCode(myToken) >= 0;
+    }
+
+	/*
+	 * Code of a reserved word, operator or separator (its position in token.in), or -1 if the token is not one of them.
+	 * It follows the token through the trie of token.in, one character at a time, so it does not depend on the number of tokens.
+	 */
+    public int getTokenCode(String myToken) {
+        return tokenIndex.codeOf(myToken);
+    }
+
+
+	/*
+	 * Inserts the symbol in the symbol table in use (ST or offHeapST), or finds it if it is already there, and returns its position.
+	 */
+    private int insertOrGetSymbol(String symbol) throws IOException {
+        return offHeapST != null ? offHeapST.insertOrGet(symbol) : ST.insertOrGet(symbol);
+    }
+
+	/*
+	 * Times the symbol table in use has grown; positions of the off-heap table never change, so for it this is always 0.
+	 */
+    private int symbolTableResizeCount() {
+        return offHeapST != null ? 0 : ST.getResizeCount();
     }
 
 
@@ -178,42 +171,59 @@ public class MyScanner {
 	/*
 	 * Main method. 
 	 * First analyses, then classifies tokens into identifiers, constants, and operators, and writes the results to "output/pif.out".
-	 * 
+	 * Each identifier or constant is inserted and located in the symbol table with a single probe sequence (insertOrGet).
+	 * The symbol table grows while the tokens are inserted (and its positions change when it does), so when the file is written
+	 * only the positions obtained before the last growth are looked up again.
 	 */
-    public void tokensClasification() throws FileNotFoundException {
-    	PrintWriter pw = new PrintWriter("output/pif.out"); // For writing out the file 
-        pw.printf("%-20s %s\n", "Token", "ST_Pos");
-        
+    public void tokensClasification() throws IOException {
+        String[] kinds = new String[this.PIF.size()]; // Kind of each token of the PIF: the token itself (reserved), IDENTIFIER, CONSTANT or null (error).
+        boolean[] inSymbolTable = new boolean[this.PIF.size()]; // True for identifiers and constants.
+        int[] positions = new int[this.PIF.size()]; // Position in the symbol table of identifiers and constants...
+        int[] resizes = new int[this.PIF.size()]; // ...and the number of times the table had grown when it was obtained.
         
-        Integer lastLine = 0;
 		// iterates through each pair (Pair<String, Integer> pair) in the Program Internal Form (this.PIF).
-        for (Pair<String, Integer> pair: this.PIF) {
-			// If the token is a reserved operator or separator, it writes the token and a special value (-1) to the output file.
+        for (int k = 0; k < this.PIF.size(); k++) {
+        	Pair<String, Integer> pair = this.PIF.get(k);
+			// If the token is a reserved operator or separator, it is written with a special value (-1).
             if (isReservedOperatorSeparator(pair.getKey())) {
-                pw.printf("%-20s %d\n", pair.getKey(), -1);
-			// If the token is an identifier, it inserts the identifier into the symbol table (ST), finds its position, and writes "IDENTIFIER" and the position to the output file.
+                kinds[k] = pair.getKey();
+			// If the token is an identifier, it inserts the identifier into the symbol table (ST) (or gets its position if it is already there), and it is written as "IDENTIFIER" with its position.
             }else if (isIdentifier(pair.getKey())) {
-            	ST.insert(pair.getKey());
-                int position = ST.find(pair.getKey());
-                pw.printf("%-20s %d\n", "IDENTIFIER", position);
-			// If the token is a constant (numeric, string, or character), it inserts the constant into the symbol table, finds its position, and writes "CONSTANT" and the position to the output file.
+            	positions[k] = insertOrGetSymbol(pair.getKey());
+            	resizes[k] = symbolTableResizeCount();
+                kinds[k] = "IDENTIFIER";
+                inSymbolTable[k] = true;
+			// If the token is a constant (numeric, string, or character), it inserts the constant into the symbol table, and it is written as "CONSTANT" with its position.
             }else if(isConstant(pair.getKey())|| isStringConstant(pair.getKey()) || isCharConstant(pair.getKey())) {
-            	ST.insert(pair.getKey());
-                int position = ST.find(pair.getKey());
-                pw.printf("%-20s %d\n", "CONSTANT", position);
+            	positions[k] = insertOrGetSymbol(pair.getKey());
+            	resizes[k] = symbolTableResizeCount();
+                kinds[k] = "CONSTANT";
+                inSymbolTable[k] = true;
             }else { 
                 System.out.println("LEXICAL ERROR " + pair.getKey() + " AT LINE " + (pair.getValue()));
             }
-            lastLine = pair.getValue(); // Tracking of the last line for error reporting
+        }
+
+        PrintWriter pw = new PrintWriter("output/pif.out"); // For writing out the file 
+        pw.printf("%-20s %s\n", "Token", "ST_Pos");
+        for (int k = 0; k < this.PIF.size(); k++) {
+        	if (kinds[k] == null) {
+        		continue;
+        	}
+        	int position = -1;
+        	if (inSymbolTable[k]) {
+        		position = resizes[k] == symbolTableResizeCount() ? positions[k] : ST.find(this.PIF.get(k).getKey());
+        	}
+        	pw.printf("%-20s %d\n", kinds[k], position);
         }
 
 
 		// After processing all tokens, it checks whether there are unclosed double quotes "" (!isStringLexicallyCorrect) or unclosed single quotes '' (!isCharLexicallyCorrect). If so, it prints lexical error messages to the console.
         if (!isStringLexicallyCorrect) {
-            System.out.println("LEXICAL ERROR: DOUBLE QUOTES NOT CLOSED AT LINE " + lastLine);
+            System.out.println("LEXICAL ERROR: DOUBLE QUOTES NOT CLOSED AT LINE " + unclosedQuoteLine);
         }
         if (!isCharLexicallyCorrect) {
-            System.out.println("LEXICAL ERROR: SINGLE QUOTES NOT CLOSED AT LINE " + lastLine);
+            System.out.println("LEXICAL ERROR: SINGLE QUOTES NOT CLOSED AT LINE " + unclosedQuoteLine);
         }
         pw.close();
     }
@@ -221,14 +231,24 @@ public class MyScanner {
 	/*
 	 *  Writes the symbol table to "output/st.out".
 	 * It iterates through the symbol table array and writes non-null entries to the output file. For each non-null entry, it prints the symbol and its position in the symbol table.
+	 * With the off-heap table, it goes through the symbols of its arena in insertion order, each one with its offset as position.
 	 */
     public void writeSymbolTable() throws FileNotFoundException {
     	PrintWriter pw = new PrintWriter("output/st.out");
+    	if (offHeapST != null) {
+    		pw.printf("%-20s %s\n", "Symbol Table as:", "Off-Heap Hash Table");
+    		pw.printf("%-20s %s\n", "Symbol", "ST Position");
+    		for (int p = 0; p >= 0 && p < offHeapST.getDataSize(); p = offHeapST.nextPosition(p)) {
+    			pw.printf("%-20s %s\n", offHeapST.getSymbol(p), p);
+    		}
+    		pw.close();
+    		return;
+    	}
     	pw.printf("%-20s %s\n", "Symbol Table as:", "Hash Table");
         pw.printf("%-20s %s\n", "Symbol", "ST Position");
         String[] symTable = ST.getSymbolTable();
 
-        for(int i = 0; i < capacity; i++) {
+        for(int i = 0; i < ST.getSize(); i++) {
             if (symTable[i] != null) {
                 pw.printf("%-20s %s\n", symTable[i], i);
             }
@@ -239,223 +259,26 @@ public class MyScanner {
 	// LEXICAL SCANNER METHOD:
 
 	/*
-	 * Reads the source code file, passes the code to tokens so that we can use readTokens(), and classifies the tokens.
-	 * It creates a File (myObj), it initializes a Scanner (myReader), it enters a loop that iterates through each line in the file.
-	 * For each line, it creates another Scanner (data) to tokenize the line into words.
-	 * The processes each word like this:
-	 * It checks if the word contains any separator from the separatorList.
-	 * 		If a separator is found, it calls the splitWordWithSeparator method to further process the word.
-	 * 		If no separator is found, it checks and accumulates the word for string and character constants based on the state of isStringLexicallyCorrect and isCharLexicallyCorrect.
-	 * 		If no separator is found and both string and character lexically correct flags are true, it adds the word to the Program Internal Form (PIF) with its line number.
+	 * Reads the source code file and splits it into tokens with a Lexer, adding each token to the Program Internal Form (PIF) with its line number.
+	 * The Lexer reads the file character by character only once (maximal munch): the longest operator or separator of token.in (tokenIndex),
+	 * a whole word, or a whole string or char constant (with its quotes) is taken at each point, so no line or word is split again.
+	 * If a string or char constant is not closed before the end of the file, isStringLexicallyCorrect or isCharLexicallyCorrect is set to false
+	 * and the line where it started is kept for the error message.
 	 */
     public void scanner() {
-    	File myObj = new File(this.fileName);
-    	try {
-			Scanner myReader = new Scanner(myObj); //  creates a file.
-			while(myReader.hasNextLine()) {
-				Scanner data = new Scanner(myReader.nextLine());
-				currentLine++;
-				while(data.hasNext()) {
-					String word = data.next();
-					boolean hasSeparator = false;
-					for(String separator : separatorList) {
-						if(word.contains(separator)) {
-							hasSeparator = true;
-							this.splitWordWithSeparator(word,separator,currentLine);
-							break;
-						}
-					}
-					if (!hasSeparator && !isStringLexicallyCorrect) {
-	                    stringConstant += word + " ";
-	                }
-	                if (!hasSeparator && !isCharLexicallyCorrect) {
-	                    charConstant += word + " ";
-	                }
-	                if (!hasSeparator && isStringLexicallyCorrect && isCharLexicallyCorrect) {
-	                     PIF.add(new Pair<String, Integer>(word, currentLine));
-	                }
-					
-					
-				}
-			}
-			myReader.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		}
-    	
-    }
-    
-
-	/*
-	 * This method checks for different cases where a word contains a separator (f.e. "" for strings, '' for chars and special relational separators).
-	 * It handles special cases for string and character constants, updating the lexically correct flags accordingly.
-	 * 		For relational separators like '(' and ')', it splits the word and adds the corresponding parts to the Program Internal Form (PIF).
-	 * 		For '[' and ']', it splits the word and handles the cases where the content inside '[' and ']' is present.
-	 * 		For special characters like '+', and '.', it adds them to the PIF.
-	 * 		If none of the special cases apply, it splits the word using the separator and adds the parts to the PIF.
-	 */
-    private void splitWordWithSeparator(String word, String separator, Integer line) {
-    	String[] splitedWord;
-    	
-    	boolean specialCase = false;
-    	boolean containsRelational = false;
-    	char doubleQuotes = '"';
-    	String stringDoubleQuotes = String.valueOf(doubleQuotes);
-    	
-    	// If contains ""
-    	if(word.contains(stringDoubleQuotes) && !isStringLexicallyCorrect) {
-    		specialCase=true;
-    		this.isStringLexicallyCorrect = true;
-    		// STRING ENDS IN ;
-    		if(word.charAt(word.length()-1) == ';') {
-    			String newWord = word.substring(0,word.length()-1);
-    			stringConstant += newWord + " ";
-    			PIF.add(new Pair<String,Integer>(stringConstant, currentLine));
-    			PIF.add(new Pair<String, Integer>(";",currentLine));
-    			stringConstant = "";
-    			return;
-    		}else {
-    			stringConstant += word + " ";
-                PIF.add(new Pair<String, Integer>(stringConstant, currentLine));
-                stringConstant = "";
-                return;
+    	try (Reader reader = new InputStreamReader(new FileInputStream(this.fileName), StandardCharsets.UTF_8)) {
+    		Lexer lexer = new Lexer(reader, tokenIndex);
+    		while (lexer.next()) {
+    			PIF.add(new Pair<String, Integer>(lexer.getLexeme(), lexer.getLine()));
     		}
-    	}
-    	
-    	// If the word is inside of a string that is not already processed correctly.
-    	if(!isStringLexicallyCorrect) {
-    		specialCase = true;
-    		//We add the word to the String chain
-    		stringConstant += word + " ";
-    	}
-    	
-    	// String starts with ""
-    	if(separator.charAt(0) == '"' && isStringLexicallyCorrect) {
-    		specialCase = true;
-    		// Entramos en un String no correcto
-    		isStringLexicallyCorrect = false;
-    		stringConstant += word + " ";
-    		return;
-    	}
-    	
-    	// Contains ''
-    	if (word.contains("'") && !isCharLexicallyCorrect) {
-    		specialCase = true;
-    		this.isCharLexicallyCorrect = true;
-    		// Ends in ;
-    		if(word.charAt(word.length()-1) == ';') {
-    			String newWord = word.substring(0, word.length() - 1);
-                charConstant += newWord + " ";
-                PIF.add(new Pair<String, Integer>(charConstant, currentLine));
-                PIF.add(new Pair<String, Integer>(";", currentLine));
-                charConstant = "";
-                return;
-    		}else {
-    			charConstant += word + " ";
-                PIF.add(new Pair<String, Integer>(charConstant, currentLine));
-                charConstant = "";
-                return;
+    		if (lexer.getUnclosedQuote() == '"') {
+    			isStringLexicallyCorrect = false;
+    		} else if (lexer.getUnclosedQuote() == '\'') {
+    			isCharLexicallyCorrect = false;
     		}
-    	}
-    	
-    	if(!isCharLexicallyCorrect) {
-    		specialCase=true;
-    		charConstant += word + " ";
-    		return;
-    	}
-    	
-    	if (separator.equals("'") && isCharLexicallyCorrect) {
-            specialCase = true;
-            isCharLexicallyCorrect = false;
-            charConstant += word + " ";
-            return;
-        }
-    	
-    	if(separator.equals("(")){
-    		specialCase = true;
-    		String[] Lhs;
-    		String[] Rhs;
-    		
-    		for(String specialSeparator : this.specialRelational) {
-    			if(word.contains(specialSeparator)) {
-    				containsRelational = true;
-    				splitedWord = word.split(specialSeparator);
-    				Rhs = splitedWord[0].split("\\(");
-    				Lhs = splitedWord[1].split("\\)");
-    				PIF.add(new Pair<String, Integer>("(", currentLine));
-                    PIF.add(new Pair<String, Integer>(Rhs[1], currentLine));
-                    PIF.add(new Pair<String, Integer>(specialSeparator, currentLine));
-                    PIF.add(new Pair<String, Integer>(Lhs[0], currentLine));
-                    PIF.add(new Pair<String, Integer>(")", currentLine));  				
-    			}
-    		}
-    		for (String regularSeparator : this.regularRelational) {
-                if (word.contains(regularSeparator) && !containsRelational) {
-                    containsRelational = true;
-                    splitedWord = word.split(regularSeparator);
-                    Rhs = splitedWord[0].split("\\(");
-    				Lhs = splitedWord[1].split("\\)");
-                    PIF.add(new Pair<String, Integer>("(", currentLine));
-                    PIF.add(new Pair<String, Integer>(Rhs[1], currentLine));
-                    PIF.add(new Pair<String, Integer>(regularSeparator, currentLine));
-                    PIF.add(new Pair<String, Integer>(Lhs[0], currentLine));
-                    PIF.add(new Pair<String, Integer>(")", currentLine));
-                }
-            }
-    	}
-    	if (separator.equals(")")) {
-            specialCase = true;
-            splitedWord = word.split("\\)");
-            PIF.add(new Pair<String, Integer>(splitedWord[0], currentLine));
-            PIF.add(new Pair<String, Integer>(separator, currentLine));
-        }
-    	
-    	if (separator.equals("[")) {
-            specialCase = true;
-            splitedWord = word.split("\\[");
-            PIF.add(new Pair<String, Integer>(splitedWord[0], currentLine));
-            PIF.add(new Pair<String, Integer>(separator, currentLine));
-            String[] LHS = splitedWord[1].split("\\]");
-            if (LHS.length == 1) {
-                PIF.add(new Pair<String, Integer>(LHS[0], currentLine));
-                PIF.add(new Pair<String, Integer>("]", currentLine));
-            } else if (LHS.length == 2) {
-                PIF.add(new Pair<String, Integer>(LHS[0], currentLine));
-                PIF.add(new Pair<String, Integer>("]", currentLine));
-                PIF.add(new Pair<String, Integer>(LHS[1], currentLine));
-            }
-        }
-    	
-    	if (separator.equals("+")) {
-            PIF.add(new Pair<String, Integer>(separator, currentLine));
-            specialCase = true;
-        }
-
-        if (separator.equals(".")) {
-        	splitedWord = word.split("\\.");
-            PIF.add(new Pair<String, Integer>(splitedWord[0], currentLine));
-            PIF.add(new Pair<String, Integer>(separator, currentLine));
-            specialCase = true;
-        }
-
-        if (!specialCase) {
-        	splitedWord = word.split(separator);
-            if (splitedWord.length == 0) {
-                PIF.add(new Pair<String, Integer>(separator, currentLine));
-            }
-
-            if (splitedWord.length == 1) {
-                PIF.add(new Pair<String, Integer>(splitedWord[0], currentLine));
-                PIF.add(new Pair<String, Integer>(separator, currentLine));
-            }
-
-            if (splitedWord.length == 2) {
-                if (!splitedWord[0].equals("")) {
-                    PIF.add(new Pair<String, Integer>(splitedWord[0], currentLine));
-                }
-                PIF.add(new Pair<String, Integer>(separator, currentLine));
-                PIF.add(new Pair<String, Integer>(splitedWord[1], currentLine));
-            }
-        }
+    		unclosedQuoteLine = lexer.getUnclosedQuoteLine();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
     }
 }
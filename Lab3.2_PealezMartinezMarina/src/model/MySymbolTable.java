@@ -1,15 +1,34 @@
 package model;
 
+/*
+ * Hash table with linear probing. When the number of elements goes over loadFactor * size, the table is rehashed
+ * into a table of (at least) double size, so insert and find stay O(1) on average however many symbols there are.
+ * Positions change when the table is rehashed, so they must be read with find() after all the insertions.
+ */
 public class MySymbolTable {
+	public static final double DEFAULT_LOAD_FACTOR = 0.7;
+	
 	private String[] table;
 	private int numberOfElements;
+	private final double loadFactor;
+	private int threshold; // Number of elements from which the table grows.
+	private int resizeCount; // Number of times the table has grown (positions returned before the last one are no longer valid).
 	
 	public MySymbolTable(int n) {
+		this(n, DEFAULT_LOAD_FACTOR);
+	}
+	
+	public MySymbolTable(int n, double loadFactor) {
+		if(loadFactor<=0 || loadFactor>1) {
+			throw new IllegalArgumentException("Load factor must be in (0, 1]: " + loadFactor);
+		}
 		this.numberOfElements=0;
+		this.loadFactor=loadFactor;
 		if(!isPrime(n)) {
 			n=nextPositivePrime(n);
 		}
 		this.table=new String[n];
+		this.threshold=computeThreshold(n);
 	}
 	
 	public String[] getSymbolTable() {
@@ -24,43 +43,107 @@ public class MySymbolTable {
 		return table.length;
 	}
 	
+	public int getResizeCount() {
+		return resizeCount;
+	}
+	
+	/*
+	 * Returns 0 if the element was inserted, -1 if it was already in the table and -2 if it is null.
+	 */
 	public int insert(String i) {
 		if(i==null) {
 			return -2;
-		}else if(find(i)!=-1) {
-			return -1;
 		}
+		int before=numberOfElements;
+		insertOrGet(i);
+		return numberOfElements>before ? 0 : -1;
+	}
+	
+	/*
+	 * Returns the position of the element, inserting it first if it is not in the table (-2 if it is null).
+	 * It follows the probe sequence of the element only once: it stops at the element or at the first empty position, where the
+	 * element is inserted. The position stays valid until the table grows (getResizeCount() changes).
+	 */
+	public int insertOrGet(String i) {
+		if(i==null) {
+			return -2;
+		}
+		int size=getSize();
 		int position=hashFunction(i);
-		int attempt=0;
-		while(attempt<getSize() && table[position]!=null) {
-			position=positionSearch(i,attempt);
-			attempt++;
+		while(table[position]!=null) {
+			if(table[position].equals(i)) {
+				return position;
+			}
+			position++;
+			if(position==size) {
+				position=0;
+			}
 		}
-		if(attempt==getSize()) {
-			return -3;
-		}else {
-			table[position]=i;
-			numberOfElements++;
-			return 0;
+		if(numberOfElements+1>threshold) {
+			rehash(nextPositivePrime(2*size));
+			size=getSize();
+			position=hashFunction(i);
+			while(table[position]!=null) {
+				position++;
+				if(position==size) {
+					position=0;
+				}
+			}
 		}
+		table[position]=i;
+		numberOfElements++;
+		return position;
 	}
 	
 	private int positionSearch(String i, int attempt) {
 		return (hashFunction(i)+attempt)%getSize();
 	}
 	
+	/*
+	 * Elements are never removed, so the probe sequence of an element has no empty position before it:
+	 * the search stops at the first empty position.
+	 */
 	public int find(String i) {
 		int position=0;
 		int attempt=0;
-		while(attempt<=getSize()) {
+		while(attempt<getSize()) {
 			position = positionSearch(i, attempt);
-			if(table[position]!=null && table[position].equals(i)) {
+			if(table[position]==null) {
+				return -1;
+			}
+			if(table[position].equals(i)) {
 				return position;
 			}
 			attempt++;
 		}
 		return -1;
 	}
+	
+	/*
+	 * Moves every element to a new table of the given size (a prime number).
+	 */
+	private void rehash(int newSize) {
+		String[] oldTable=table;
+		table=new String[newSize];
+		threshold=computeThreshold(newSize);
+		resizeCount++;
+		for(String element : oldTable) {
+			if(element!=null) {
+				int position=hashFunction(element);
+				while(table[position]!=null) {
+					position=(position+1)%newSize;
+				}
+				table[position]=element;
+			}
+		}
+	}
+	
+	/*
+	 * At least one position is always left empty, so searches always stop.
+	 */
+	private int computeThreshold(int size) {
+		return Math.min(size-1, (int)(size*loadFactor));
+	}
 
 	public String toString() {
 		StringBuilder stringChain = new StringBuilder();
@@ -89,25 +172,29 @@ public class MySymbolTable {
 		}
 	}
 	
+	/*
+	 * Trial division by 2 and by the odd numbers up to the square root of n.
+	 */
 	private boolean isPrime(int n) {
-		if(n<0) {
+		if(n<2) {
 			return false;
 		}
-		int counter = 2;
-		boolean prime=true;
-		while ((prime) && (counter!=n)){
-			if (n % counter == 0) {
-				prime = false;
+		if(n%2==0) {
+			return n==2;
+		}
+		for(int divisor=3; (long)divisor*divisor<=n; divisor+=2) {
+			if(n%divisor==0) {
+				return false;
 			}
-			counter++;
 		}
-		return prime;
+		return true;
 	} 
 	
+	/*
+	 * Smallest prime number greater than n.
+	 */
 	private int nextPositivePrime(int n) {
-		if(isPrime(n)) {
-			n++;
-		}
+		n=Math.max(n+1, 2);
 		while(!isPrime(n)) {
 			n++;
 		}
@@ -0,0 +1,333 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Symbol table kept outside the Java heap, in two memory-mapped files, so a huge number of symbols costs no String objects
+ * and no garbage collection work:
+ * - <name>.dat (arena): the symbols one after another, each one as [int length][UTF-8 bytes].
+ * - <name>.idx (index): a header [magic, version, size, number of elements, bytes used in the arena] followed by an
+ *   open-addressing table (linear probing, power-of-two size) of [int hash, int position + 1] slots (0 = empty).
+ * The position of a symbol is the offset of its record in the arena. It never changes, not even when the index grows,
+ * so PIF entries stay valid. Both files are always up to date, so the table can be reopened later and used straight away,
+ * without reading the symbols or rehashing them.
+ * The operations are the same as in MySymbolTable; getSymbol() gives the symbol of a position.
+ */
+public class OffHeapSymbolTable implements Closeable {
+	public static final double LOAD_FACTOR = 0.7;
+
+	private static final int MAGIC = 0x53594D54; // "SYMT"
+	private static final int VERSION = 1;
+	private static final int HEADER = 20; // magic, version, size, numberOfElements, dataSize.
+	private static final int SIZE_OFFSET = 8;
+	private static final int COUNT_OFFSET = 12;
+	private static final int DATA_SIZE_OFFSET = 16;
+	private static final int SLOT = 8;
+	private static final int MAX_SLOTS = 1 << 27; // The index must fit in one mapped buffer (at most 2 GiB).
+
+	private final FileChannel indexChannel;
+	private final FileChannel dataChannel;
+	private MappedByteBuffer index;
+	private MappedByteBuffer data;
+	private int size; // Slots of the index (a power of two).
+	private int mask;
+	private int numberOfElements;
+	private int dataSize; // Bytes of the arena in use; the next symbol goes there.
+
+	private OffHeapSymbolTable(FileChannel indexChannel, FileChannel dataChannel) {
+		this.indexChannel = indexChannel;
+		this.dataChannel = dataChannel;
+	}
+
+	/*
+	 * Opens the table stored in <base>.idx and <base>.dat, or creates it (with an index of at least n slots) if they do not exist.
+	 * Throws IOException if the files exist but are not a symbol table.
+	 */
+	public static OffHeapSymbolTable open(Path base, int n) throws IOException {
+		Path indexFile = Paths.get(base + ".idx");
+		Path dataFile = Paths.get(base + ".dat");
+		boolean exists = Files.exists(indexFile) && Files.exists(dataFile);
+		FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		FileChannel dataChannel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		OffHeapSymbolTable table = new OffHeapSymbolTable(indexChannel, dataChannel);
+		try {
+			if (exists && indexChannel.size() > 0) {
+				table.reopen();
+			} else {
+				table.create(powerOfTwo(n));
+			}
+		} catch (IOException | RuntimeException e) {
+			table.close();
+			throw e;
+		}
+		return table;
+	}
+
+	private void create(int slots) throws IOException {
+		mapIndex(slots);
+		data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(4096, slots * 16L));
+		numberOfElements = 0;
+		dataSize = 0;
+		index.putInt(0, MAGIC);
+		index.putInt(4, VERSION);
+		writeHeader();
+	}
+
+	private void reopen() throws IOException {
+		if (indexChannel.size() < HEADER) {
+			throw new IOException("Not a symbol table index");
+		}
+		ByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+		if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+			throw new IOException("Not a symbol table index");
+		}
+		int slots = header.getInt(SIZE_OFFSET);
+		if (slots <= 0 || Integer.bitCount(slots) != 1 || indexChannel.size() < HEADER + (long) slots * SLOT) {
+			throw new IOException("Corrupted symbol table index");
+		}
+		mapIndex(slots);
+		numberOfElements = header.getInt(COUNT_OFFSET);
+		dataSize = header.getInt(DATA_SIZE_OFFSET);
+		if (dataChannel.size() < dataSize) {
+			throw new IOException("Corrupted symbol table data");
+		}
+		data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(4096, dataChannel.size()));
+	}
+
+	private void mapIndex(int slots) throws IOException {
+		index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) slots * SLOT);
+		size = slots;
+		mask = slots - 1;
+	}
+
+	private void writeHeader() {
+		index.putInt(SIZE_OFFSET, size);
+		index.putInt(COUNT_OFFSET, numberOfElements);
+		index.putInt(DATA_SIZE_OFFSET, dataSize);
+	}
+
+	// GETTERS:
+
+	public int getNumberOfElements() {
+		return numberOfElements;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/*
+	 * Bytes of the arena in use; the positions of the symbols go from 0 to getDataSize() - 1.
+	 */
+	public int getDataSize() {
+		return dataSize;
+	}
+
+	/*
+	 * Returns the symbol stored at the position.
+	 */
+	public String getSymbol(int position) {
+		if (position < 0 || position >= dataSize) {
+			throw new IndexOutOfBoundsException("Position " + position);
+		}
+		int length = data.getInt(position);
+		byte[] bytes = new byte[length];
+		data.get(position + 4, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/*
+	 * Returns the position of the symbol stored after the one at the position, or -1 if it is the last one
+	 * (for (int p = 0; p >= 0 && p < getDataSize(); p = nextPosition(p)) goes through every symbol).
+	 */
+	public int nextPosition(int position) {
+		int next = position + 4 + data.getInt(position);
+		return next < dataSize ? next : -1;
+	}
+
+	// OPERATIONS:
+
+	/*
+	 * Returns 0 if the element was inserted, -1 if it was already in the table and -2 if it is null.
+	 */
+	public int insert(String i) throws IOException {
+		if (i == null) {
+			return -2;
+		}
+		int before = numberOfElements;
+		insertOrGet(i);
+		return numberOfElements > before ? 0 : -1;
+	}
+
+	/*
+	 * Returns the position of the element, adding it to the arena first if it is not in the table (-2 if it is null).
+	 */
+	public int insertOrGet(String i) throws IOException {
+		if (i == null) {
+			return -2;
+		}
+		byte[] bytes = i.getBytes(StandardCharsets.UTF_8);
+		int hash = hash(bytes);
+		int slot = hash & mask;
+		while (true) {
+			int stored = index.getInt(HEADER + slot * SLOT + 4);
+			if (stored == 0) {
+				break;
+			}
+			if (index.getInt(HEADER + slot * SLOT) == hash && sameBytes(stored - 1, bytes)) {
+				return stored - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		// The index grows before the symbol is appended, so if growing fails the arena is left as it was (no record without a slot).
+		if (numberOfElements + 1 > (int) (size * LOAD_FACTOR)) {
+			growIndex();
+			slot = hash & mask;
+			while (index.getInt(HEADER + slot * SLOT + 4) != 0) {
+				slot = (slot + 1) & mask;
+			}
+		}
+		int position = append(bytes);
+		index.putInt(HEADER + slot * SLOT, hash);
+		index.putInt(HEADER + slot * SLOT + 4, position + 1);
+		numberOfElements++;
+		writeHeader();
+		return position;
+	}
+
+	/*
+	 * Returns the position of the element, or -1 if it is not in the table (or it is null).
+	 */
+	public int find(String i) {
+		if (i == null) {
+			return -1;
+		}
+		byte[] bytes = i.getBytes(StandardCharsets.UTF_8);
+		int hash = hash(bytes);
+		int slot = hash & mask;
+		while (true) {
+			int stored = index.getInt(HEADER + slot * SLOT + 4);
+			if (stored == 0) {
+				return -1;
+			}
+			if (index.getInt(HEADER + slot * SLOT) == hash && sameBytes(stored - 1, bytes)) {
+				return stored - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	/*
+	 * Writes the changes of both files to the disk.
+	 */
+	public void flush() {
+		index.force();
+		data.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (index != null && data != null) {
+				flush();
+			}
+		} finally {
+			indexChannel.close();
+			dataChannel.close();
+		}
+	}
+
+	// HELPERS:
+
+	/*
+	 * Adds [length][bytes] at the end of the arena (mapping a bigger part of the file when it is full) and returns its position.
+	 */
+	private int append(byte[] bytes) throws IOException {
+		long needed = (long) dataSize + 4 + bytes.length;
+		if (needed > Integer.MAX_VALUE) {
+			throw new IOException("Symbol table arena is full");
+		}
+		if (needed > data.capacity()) {
+			long capacity = Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * data.capacity()));
+			data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		}
+		int position = dataSize;
+		data.putInt(position, bytes.length);
+		data.put(position + 4, bytes);
+		dataSize = (int) needed;
+		return position;
+	}
+
+	/*
+	 * Doubles the index. The slots keep their hashes, so the symbols are not read again.
+	 */
+	private void growIndex() throws IOException {
+		if (size >= MAX_SLOTS) {
+			throw new IOException("Symbol table index is full");
+		}
+		int[] slots = new int[size * 2];
+		for (int slot = 0; slot < size; slot++) {
+			slots[2 * slot] = index.getInt(HEADER + slot * SLOT);
+			slots[2 * slot + 1] = index.getInt(HEADER + slot * SLOT + 4);
+		}
+		int oldSize = size;
+		mapIndex(size * 2);
+		for (int slot = 0; slot < size; slot++) {
+			index.putLong(HEADER + slot * SLOT, 0L);
+		}
+		for (int slot = 0; slot < oldSize; slot++) {
+			int stored = slots[2 * slot + 1];
+			if (stored != 0) {
+				int target = slots[2 * slot] & mask;
+				while (index.getInt(HEADER + target * SLOT + 4) != 0) {
+					target = (target + 1) & mask;
+				}
+				index.putInt(HEADER + target * SLOT, slots[2 * slot]);
+				index.putInt(HEADER + target * SLOT + 4, stored);
+			}
+		}
+		writeHeader();
+	}
+
+	private boolean sameBytes(int position, byte[] bytes) {
+		if (data.getInt(position) != bytes.length) {
+			return false;
+		}
+		for (int k = 0; k < bytes.length; k++) {
+			if (data.get(position + 4 + k) != bytes[k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * FNV-1a over the UTF-8 bytes, with the high bits folded down for the mask.
+	 */
+	private static int hash(byte[] bytes) {
+		int h = 0x811C9DC5;
+		for (byte b : bytes) {
+			h ^= b & 0xFF;
+			h *= 0x01000193;
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static int powerOfTwo(int n) {
+		int size = 2;
+		while (size < n && size < MAX_SLOTS) {
+			size <<= 1;
+		}
+		return size;
+	}
+}
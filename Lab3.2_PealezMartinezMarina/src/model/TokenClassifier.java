@@ -0,0 +1,107 @@
+package model;
+
+/*
+ * Hand-coded DFAs for the token classes of the scanner. Each check reads the token once, left to right,
+ * and does not create any object (no Pattern is compiled and no substring is taken).
+ * They accept exactly the same tokens as the regular expressions the scanner used before:
+ * - integer constant:   -?[1-9]+[0-9]*|0
+ * - string literal:     "[a-zA-Z0-9 _]+"
+ * - identifier:         [a-zA-Z][a-zA-Z0-9 _]*
+ */
+
+public final class TokenClassifier {
+
+	private TokenClassifier() {
+	}
+
+	/*
+	 * -?[1-9]+[0-9]*|0  (the same as -?[1-9][0-9]*|0): an optional minus, a non-zero digit and then any digits; or a single 0.
+	 */
+	public static boolean isIntegerConstant(CharSequence token) {
+		int length = token.length();
+		if (length == 1 && token.charAt(0) == '0') {
+			return true;
+		}
+		int i = 0;
+		if (i < length && token.charAt(i) == '-') {
+			i++;
+		}
+		if (i >= length || token.charAt(i) < '1' || token.charAt(i) > '9') {
+			return false;
+		}
+		for (i++; i < length; i++) {
+			if (!isDigit(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * "[a-zA-Z0-9 _]+": a double quote, at least one letter, digit, space or underscore, and a closing double quote.
+	 */
+	public static boolean isStringLiteral(CharSequence token) {
+		int length = token.length();
+		if (length < 3 || token.charAt(0) != '"' || token.charAt(length - 1) != '"') {
+			return false;
+		}
+		for (int i = 1; i < length - 1; i++) {
+			if (!isWordChar(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * [a-zA-Z][a-zA-Z0-9 _]*: a letter followed by letters, digits, spaces or underscores.
+	 */
+	public static boolean isIdentifier(CharSequence token) {
+		int length = token.length();
+		if (length == 0 || !isLetter(token.charAt(0))) {
+			return false;
+		}
+		for (int i = 1; i < length; i++) {
+			if (!isWordChar(token.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Integer constant or string literal.
+	 */
+	public static boolean isConstant(CharSequence token) {
+		return isIntegerConstant(token) || isStringLiteral(token);
+	}
+
+	/*
+	 * String constant as the lexer returns it: enclosed in double quotes, with more than one character in between
+	 * (any characters, unlike isStringLiteral).
+	 */
+	public static boolean isStringConstant(CharSequence token) {
+		int length = token.length();
+		return length > 3 && token.charAt(0) == '"' && token.charAt(length - 1) == '"';
+	}
+
+	/*
+	 * Char constant: enclosed in single quotes, with at most one character in between.
+	 */
+	public static boolean isCharConstant(CharSequence token) {
+		int length = token.length();
+		return length >= 2 && length <= 3 && token.charAt(0) == '\'' && token.charAt(length - 1) == '\'';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isWordChar(char c) {
+		return isLetter(c) || isDigit(c) || c == ' ' || c == '_';
+	}
+}
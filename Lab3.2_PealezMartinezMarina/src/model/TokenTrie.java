@@ -0,0 +1,128 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Trie (a DFA whose states are the prefixes) over the reserved words, operators and separators of "input/token.in".
+ * Each node has a transition table for the ASCII characters; a node is final when the prefix is a whole token,
+ * and then it keeps the code of the token (its position in token.in).
+ * - codeOf() looks a token up in O(length) without creating any object, returning its code or -1.
+ * - longestMatch() runs the DFA from a position and returns the length of the longest token found (maximal munch).
+ */
+
+public class TokenTrie {
+	private static final int ASCII = 128;
+
+	private int[][] next; // next[node][c] = child node, or 0 if there is none (the root is never a child).
+	private int[] code; // Code of the token that ends at the node, or -1 if the prefix is not a token.
+	private int nodeCount;
+
+	public TokenTrie() {
+		this.next = new int[8][];
+		this.code = new int[8];
+		this.nodeCount = 0;
+		newNode();
+	}
+
+	/*
+	 * Adds a token with its code. If the token was already added, it keeps its first code.
+	 * Tokens with characters outside ASCII cannot be matched, so they are ignored.
+	 */
+	public void add(String token, int tokenCode) {
+		if (token.isEmpty()) {
+			return;
+		}
+		int node = 0;
+		for (int i = 0; i < token.length(); i++) {
+			char c = token.charAt(i);
+			if (c >= ASCII) {
+				return;
+			}
+			if (next[node][c] == 0) {
+				int child = newNode();
+				next[node][c] = child;
+			}
+			node = next[node][c];
+		}
+		if (code[node] < 0) {
+			code[node] = tokenCode;
+		}
+	}
+
+	/*
+	 * Code of the token, or -1 if it is not one of the tokens.
+	 */
+	public int codeOf(CharSequence token) {
+		int node = 0;
+		for (int i = 0; i < token.length(); i++) {
+			char c = token.charAt(i);
+			if (c >= ASCII || next[node][c] == 0) {
+				return -1;
+			}
+			node = next[node][c];
+		}
+		return code[node];
+	}
+
+	/*
+	 * Code of the token in buffer[start, end), or -1 if it is not one of the tokens.
+	 */
+	public int codeOf(char[] buffer, int start, int end) {
+		int node = 0;
+		for (int i = start; i < end; i++) {
+			char c = buffer[i];
+			if (c >= ASCII || next[node][c] == 0) {
+				return -1;
+			}
+			node = next[node][c];
+		}
+		return code[node];
+	}
+
+	/*
+	 * Length of the longest token that starts at buffer[start] and ends before buffer[end], or 0 if no token starts there.
+	 */
+	public int longestMatch(char[] buffer, int start, int end) {
+		int node = 0;
+		int longest = 0;
+		for (int i = start; i < end; i++) {
+			char c = buffer[i];
+			if (c >= ASCII || next[node][c] == 0) {
+				break;
+			}
+			node = next[node][c];
+			if (code[node] >= 0) {
+				longest = i - start + 1;
+			}
+		}
+		return longest;
+	}
+
+	/*
+	 * Length of the longest token (how many characters the lexer may need to look ahead).
+	 */
+	public int maxLength() {
+		int[] depth = new int[nodeCount];
+		int max = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			for (int c = 0; c < ASCII; c++) {
+				int child = next[node][c];
+				if (child != 0) {
+					depth[child] = depth[node] + 1;
+					max = Math.max(max, depth[child]);
+				}
+			}
+		}
+		return max;
+	}
+
+	private int newNode() {
+		if (nodeCount == next.length) {
+			next = Arrays.copyOf(next, nodeCount * 2);
+			code = Arrays.copyOf(code, nodeCount * 2);
+		}
+		next[nodeCount] = new int[ASCII];
+		code[nodeCount] = -1;
+		return nodeCount++;
+	}
+}
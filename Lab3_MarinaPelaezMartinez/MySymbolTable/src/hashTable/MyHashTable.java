@@ -6,14 +6,25 @@ package hashTable;
  * It represents a custom hash table for storing elements as strings. 
  * It handles collisions and includes methods for inserting, removing and finding elements, 
  * as well as utility functions for prime number checks and resizing the table.
+ * When the number of elements goes over loadFactor * size, the table is rehashed into a table of (at least) double size,
+ * so it never gets full and collisions stay rare however many elements are inserted.
+ * A removed element leaves a tombstone (DELETED) instead of an empty position, so the elements after it in the same probe
+ * sequence can still be found and searches can stop at the first empty position. Tombstones are reused by insertions and
+ * dropped when the table is rehashed (compaction), which also happens when they take a quarter of the table.
  */
 
 
 public class MyHashTable {
 	
+	public static final double DEFAULT_LOAD_FACTOR = 0.7; // Load factor used when none is given.
+	private static final String DELETED = new String("<deleted>"); // Tombstone: compared by reference, so it never equals an element.
+	
 	// Attributes:
 	private String[] myTable; // Array of strings representing the hash table.
 	private int numberOfElements; // Counter for the number of elements in the table.
+	private final double loadFactor; // Maximum fraction of the table that can be used before it grows.
+	private int threshold; // Number of used positions (elements and tombstones) from which the table is rehashed.
+	private int deletedCount; // Counter for the tombstones in the table.
 	
 	/*
 	 * Constructor:
@@ -21,20 +32,41 @@ public class MyHashTable {
 	 * If the provided size is not a positive prime number, it finds the next consecutive prime number (private method).
 	 */
 	public MyHashTable(int size) {
+		this(size, DEFAULT_LOAD_FACTOR);
+	}
+	
+	/*
+	 * Constructor with the load factor (greater than 0 and at most 1) from which the table grows.
+	 */
+	public MyHashTable(int size, double loadFactor) {
+		if(loadFactor<=0 || loadFactor>1) {
+			throw new IllegalArgumentException("Load factor must be in (0, 1]: " + loadFactor);
+		}
 		this.numberOfElements=0;
+		this.loadFactor=loadFactor;
 		if(!primeNumberPositive(size)) {
 			size=consecutivePrime(size); // Couple
 		}
 		this.myTable=new String[size]; // Creates the hash table.
+		this.threshold=computeThreshold(size);
 	}
 	
 	// GETTERS:
 	
 	/*
-	 * Returns the hash table.
+	 * Returns the hash table (removed positions are null).
 	 */
 	public String[] getMySymbolTable() {
-		return myTable;
+		if(deletedCount==0) {
+			return myTable;
+		}
+		String[] table=myTable.clone();
+		for(int position=0;position<table.length;position++) {
+			if(table[position]==DELETED) {
+				table[position]=null;
+			}
+		}
+		return table;
 	}
 	
 	/*
@@ -44,6 +76,13 @@ public class MyHashTable {
 		return numberOfElements;
 	}
 	
+	/*
+	 * Returns the load factor.
+	 */
+	public double getLoadFactor() {
+		return loadFactor;
+	}
+	
 	/*
 	 * Returns the size of the table.
 	 */
@@ -56,6 +95,7 @@ public class MyHashTable {
 	 * If the element is found and removed, it returns 0. 
 	 * If the element is not found in the table, it returns -1. 
 	 * If the element to be removed is null, it returns -2.
+	 * The position is marked with a tombstone; if tombstones take a quarter of the table, it is compacted.
 	 */
 	public int removeElements(String i) {
 	    if (i == null) {
@@ -63,8 +103,12 @@ public class MyHashTable {
 	    }
 	    int position = findElements(i);
 	    if (position != -1) {
-	        myTable[position] = null; // Element is marked as removed.
+	        myTable[position] = DELETED; // Element is marked as removed.
 	        numberOfElements--;
+	        deletedCount++;
+	        if (deletedCount > getSize() / 4) {
+	        	rehash(getSize());
+	        }
 	        return 0; // Element is removed.
 	    }
 	    return -1; // Element was not found.
@@ -77,26 +121,51 @@ public class MyHashTable {
 	 * It handles cases where the input is null or if the element already exists.
 	 * If the element cannot be inserted due to collisions, it returns an error code.
 	 * 0 If the element was correctly inserted, -1 if it was duplicated and -2 if it was null or not existed.
+	 * It follows the probe sequence of the element once: it stops at the element (duplicated) or at the first empty position,
+	 * and the element goes into the first tombstone found on the way, or into that empty position.
+	 * If the new element would go over the load factor, the table is rehashed first (so the positions of the elements change):
+	 * into a table of double size if the elements need it, or of the same size if dropping the tombstones is enough.
 	 */
 	public int insertElements(String i) {
 		if(i==null) {
 			return -2; // Null element
-		}else if(findElements(i)!=-1) {
-			return -1; //Not found
 		}
+		int size=getSize();
 		int position=hashTableFunction(i);
-		int attempt=0;
-		while(attempt<getSize() && myTable[position]!=null) {
-			position=findPosition(i,attempt);
-			attempt++;
+		int tombstone=-1;
+		while(myTable[position]!=null) {
+			if(myTable[position]==DELETED) {
+				if(tombstone==-1) {
+					tombstone=position;
+				}
+			}else if(myTable[position].equals(i)) {
+				return -1; // Duplicated
+			}
+			position++;
+			if(position==size) {
+				position=0;
+			}
 		}
-		if(attempt==getSize()) {
-			return -3;
-		}else {
-			myTable[position]=i;
+		if(tombstone!=-1) {
+			myTable[tombstone]=i;
+			deletedCount--;
 			numberOfElements++;
 			return 0;
 		}
+		if(numberOfElements+deletedCount+1>threshold) {
+			rehash(numberOfElements+1>threshold/2 ? consecutivePrime(2*size) : size);
+			size=getSize();
+			position=hashTableFunction(i);
+			while(myTable[position]!=null) {
+				position++;
+				if(position==size) {
+					position=0;
+				}
+			}
+		}
+		myTable[position]=i;
+		numberOfElements++;
+		return 0;
 	}
 	
 	
@@ -112,14 +181,17 @@ public class MyHashTable {
 	
 	/*
 	 * This method finds the position of an element i in the hash table and returns it.
-	 * Returns -1 if it was not found.
+	 * Returns -1 if it was not found. Tombstones are skipped and the search stops at the first empty position.
 	 */
 	public int findElements(String i) {
 		int attempt=0;
 		int position=0;
-		while(attempt<=getSize()) {
+		while(attempt<getSize()) {
 			position = findPosition(i, attempt);
-			if(myTable[position]!=null && myTable[position].equals(i)) {
+			if(myTable[position]==null) {
+				return -1;
+			}
+			if(myTable[position]!=DELETED && myTable[position].equals(i)) {
 				return position;
 			}
 			attempt++;
@@ -127,6 +199,33 @@ public class MyHashTable {
 		return -1;
 	}
 
+	/*
+	 * This method moves every element into a new table of the given size (a prime number), leaving the tombstones out.
+	 */
+	private void rehash(int newSize) {
+		String[] oldTable=myTable;
+		myTable=new String[newSize];
+		threshold=computeThreshold(newSize);
+		deletedCount=0;
+		for(String element : oldTable) {
+			if(element!=null && element!=DELETED) {
+				int position=hashTableFunction(element);
+				while(myTable[position]!=null) {
+					position=(position+1)%newSize;
+				}
+				myTable[position]=element;
+			}
+		}
+	}
+	
+	/*
+	 * This method returns the number of used positions from which a table of the given size is rehashed.
+	 * At least one position is always left empty.
+	 */
+	private int computeThreshold(int size) {
+		return Math.min(size-1, (int)(size*loadFactor));
+	}
+
 	/*
 	 * This method generates a string representation of the hash table, 
 	 * showing the elements and additional information like size and number of elements.
@@ -134,7 +233,7 @@ public class MyHashTable {
 	public String toString() {
 		StringBuilder string = new StringBuilder();
 		for(int i=0;i< getSize();i++){
-			if(myTable[i]==null) {
+			if(myTable[i]==null || myTable[i]==DELETED) {
 				string.append("-");
 			}else {
 				string.append(myTable[i].toString());
@@ -163,29 +262,28 @@ public class MyHashTable {
 	
  	/*
  	 * This method checks if a given number n is a positive prime number.
+ 	 * It only tries 2 and the odd divisors up to the square root of n.
  	 */
 	private boolean primeNumberPositive(int n) {
-		if(n<0) {
+		if(n<2) {
 			return false;
 		}
-		int counter = 2;
-		boolean prime=true;
-		while ((prime) && (counter!=n)){
-			if (n % counter == 0) {
-				prime = false;
+		if(n%2==0) {
+			return n==2;
+		}
+		for(int divisor=3; (long)divisor*divisor<=n; divisor+=2) {
+			if(n%divisor==0) {
+				return false;
 			}
-			counter++;
 		}
-		return prime;
+		return true;
 	} 
 	
 	/*
 	 * This method finds the next consecutive prime number after n.
 	 */
 	private int consecutivePrime(int n) {
-		if(primeNumberPositive(n)) {
-			n++;
-		}
+		n=Math.max(n+1, 2);
 		while(!primeNumberPositive(n)) {
 			n++;
 		}
@@ -86,6 +86,103 @@ class MyHashTableTest {
         String expected = "-;-;-;def;-;abc;-;-;-;-;-;[Size: 11 Num.Elems.: 2]";
         assertEquals(expected, table.toString());
     }
+
+    @Test
+    public void testRemoveKeepsProbeSequence() {
+        // "Aa" and "BB" have the same hash code, so "BB" goes right after "Aa"; removing "Aa" must not hide "BB".
+
+        MyHashTable table = new MyHashTable(11);
+
+        table.insertElements("Aa");
+        table.insertElements("BB");
+        int position = table.findElements("BB");
+
+        assertEquals(0, table.removeElements("Aa"));
+        assertEquals(-1, table.findElements("Aa"));
+        assertEquals(position, table.findElements("BB"));
+        assertEquals(-1, table.insertElements("BB")); // Still a duplicate
+        assertEquals(1, table.getNumberOfElements());
+    }
+
+    @Test
+    public void testInsertReusesRemovedPosition() {
+        MyHashTable table = new MyHashTable(11);
+
+        table.insertElements("Aa");
+        table.insertElements("BB");
+        int position = table.findElements("Aa");
+        table.removeElements("Aa");
+
+        assertEquals(0, table.insertElements("Aa"));
+        assertEquals(position, table.findElements("Aa"));
+        assertEquals(2, table.getNumberOfElements());
+    }
+
+    @Test
+    public void testRemovedPositionsShownEmpty() {
+        MyHashTable table = new MyHashTable(11);
+
+        table.insertElements("abc");
+        table.insertElements("def");
+        table.removeElements("abc");
+
+        assertEquals("-;-;-;def;-;-;-;-;-;-;-;[Size: 11 Num.Elems.: 1]", table.toString());
+        assertNull(table.getMySymbolTable()[5]);
+    }
+
+    @Test
+    public void testInsertRemoveCycles() {
+        // Many insertions and removals with few elements at a time: the table does not grow and everything is still found.
+
+        MyHashTable table = new MyHashTable(11);
+
+        for (int k = 0; k < 10000; k++) {
+            assertEquals(0, table.insertElements("tmp" + k));
+            if (k >= 3) {
+                assertEquals(0, table.removeElements("tmp" + (k - 3)));
+            }
+        }
+        assertEquals(11, table.getSize());
+        assertEquals(3, table.getNumberOfElements());
+        for (int k = 9997; k < 10000; k++) {
+            assertNotEquals(-1, table.findElements("tmp" + k));
+        }
+        assertEquals(-1, table.findElements("tmp0"));
+    }
+
+    @Test
+    public void testRehash() {
+        // With the default load factor (0.7) a table of size 11 grows when the 8th element is inserted, to the next prime after 22.
+
+        MyHashTable table = new MyHashTable(11);
+
+        for (int k = 0; k < 7; k++) {
+            assertEquals(0, table.insertElements("id" + k));
+        }
+        assertEquals(11, table.getSize());
+        assertEquals(0, table.insertElements("id7"));
+        assertEquals(23, table.getSize());
+        assertEquals(8, table.getNumberOfElements());
+        for (int k = 0; k < 8; k++) {
+            assertNotEquals(-1, table.findElements("id" + k));
+        }
+    }
+
+    @Test
+    public void testManyElements() {
+        // The table never gets full: every element is inserted and found again.
+
+        MyHashTable table = new MyHashTable(10, 0.5);
+
+        for (int k = 0; k < 5000; k++) {
+            assertEquals(0, table.insertElements("symbol" + k));
+        }
+        assertEquals(5000, table.getNumberOfElements());
+        assertTrue(table.getNumberOfElements() <= table.getSize() * 0.5);
+        for (int k = 0; k < 5000; k++) {
+            assertEquals("symbol" + k, table.getMySymbolTable()[table.findElements("symbol" + k)]);
+        }
+    }
     
    
     
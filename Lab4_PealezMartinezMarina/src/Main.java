@@ -1,8 +1,16 @@
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
 
+import model.AutomatonMatcher;
+import model.BatchAcceptor;
+import model.Determinizer;
 import model.FiniteAutomata;
+import model.Minimizer;
+import model.RegexCompiler;
 
 /*
  * Marina Peláez Martínez
@@ -50,7 +58,7 @@ public class Main {
 		    	if(finiteAutomata.AfIsDFA()) {
 		    		System.out.println("It is a DFA \n");
 		    	}else {
-		    		System.out.println("It is a DFA \n");
+		    		System.out.println("It is NOT a DFA \n");
 		    	}
 
 
@@ -59,16 +67,69 @@ public class Main {
 		    	BufferedReader seqReader = new BufferedReader(new InputStreamReader(System.in));
 		    	System.out.println("Sequence: ");
 		    	String sequence = seqReader.readLine();
-		    	if(finiteAutomata.AfIsDFA()) {
-		    		if(finiteAutomata.isAccepted(sequence)) {
-			    		System.out.println("The introduced sequence IS accepted");
-			    	}else {
-			    		System.out.println("The introduced sequence IS NOT accepted");
-			    	}
+		    	// Works for DFAs and NFAs (the NFA is simulated directly).
+		    	if(finiteAutomata.isAccepted(sequence)) {
+		    		System.out.println("The introduced sequence IS accepted");
 		    	}else {
-		    		System.out.println("The finite automata IS NOT deterministic");
-		    	}	
-				
+		    		System.out.println("The introduced sequence IS NOT accepted");
+		    	}
+
+
+			//Builds the equivalent DFA with the subset construction and shows it (option 8).
+		    }else if(command.equals("8")){
+		    	FiniteAutomata dfa = Determinizer.determinize(finiteAutomata);
+		    	System.out.println("States: " + dfa.getStatesList());
+		    	System.out.println("Transitions: " + dfa.getTransitionsList());
+		    	System.out.println("Final states: " + dfa.getFinalStates());
+		    	System.out.println("Initial state: " + dfa.getInitialState() + "\n");
+
+
+			//Builds the minimal DFA (Hopcroft) and shows it (option 9).
+		    }else if(command.equals("9")){
+		    	FiniteAutomata minimal = Minimizer.minimize(finiteAutomata);
+		    	System.out.println("States: " + minimal.getStatesList());
+		    	System.out.println("Transitions: " + minimal.getTransitionsList());
+		    	System.out.println("Final states: " + minimal.getFinalStates());
+		    	System.out.println("Initial state: " + minimal.getInitialState() + "\n");
+
+
+			//Reports every match of the automaton inside a file (option 10).
+		    }else if(command.equals("10")){
+		    	BufferedReader pathReader = new BufferedReader(new InputStreamReader(System.in));
+		    	System.out.println("File: ");
+		    	String path = pathReader.readLine();
+		    	AutomatonMatcher matcher = AutomatonMatcher.of(Collections.singletonList(finiteAutomata));
+		    	List<AutomatonMatcher.Match> matches = matcher.scan(Paths.get(path));
+		    	System.out.println(matches.size() + " matches: " + matches + "\n");
+
+
+			//Checks every sequence of a file (one per line) in parallel and writes the results to another file (option 11).
+		    }else if(command.equals("11")){
+		    	BufferedReader pathReader = new BufferedReader(new InputStreamReader(System.in));
+		    	System.out.println("Input file: ");
+		    	String input = pathReader.readLine();
+		    	System.out.println("Output file: ");
+		    	String output = pathReader.readLine();
+		    	long accepted = BatchAcceptor.of(finiteAutomata).acceptFile(Paths.get(input), Paths.get(output));
+		    	System.out.println(accepted + " sequences accepted, results written to " + output + "\n");
+
+
+			//Builds the minimal DFA of a regular expression, shows it and verifies a sequence with it (option 12).
+		    }else if(command.equals("12")){
+		    	BufferedReader regexReader = new BufferedReader(new InputStreamReader(System.in));
+		    	System.out.println("Regular expression: ");
+		    	FiniteAutomata regexAutomaton = RegexCompiler.toMinimalDFA(regexReader.readLine());
+		    	System.out.println("States: " + regexAutomaton.getStatesList());
+		    	System.out.println("Transitions: " + regexAutomaton.getTransitionsList());
+		    	System.out.println("Final states: " + regexAutomaton.getFinalStates());
+		    	System.out.println("Initial state: " + regexAutomaton.getInitialState());
+		    	System.out.println("Sequence: ");
+		    	if(regexAutomaton.isAccepted(regexReader.readLine())) {
+		    		System.out.println("The introduced sequence IS accepted\n");
+		    	}else {
+		    		System.out.println("The introduced sequence IS NOT accepted\n");
+		    	}
+
 
 			//Handles unknown options and displays an error message if the user enters an invalid option.
 		    }else {
@@ -85,6 +146,11 @@ public class Main {
         System.out.println("5 - Show the initial state");
         System.out.println("6 - Is DFA?");
         System.out.println("7 - Verify a sequence");
+        System.out.println("8 - Determinize (subset construction)");
+        System.out.println("9 - Minimize");
+        System.out.println("10 - Find the matches in a file");
+        System.out.println("11 - Verify every sequence of a file");
+        System.out.println("12 - Build the automaton of a regular expression");
         System.out.println("0 - Exit");
 	}
 
@@ -0,0 +1,282 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Marina Peláez Martínez
+ * Int-indexed view of a finite automaton, shared by the compiled execution engines.
+ * States get ids 0..S-1 and single-character symbols get ids 0..A-1; transitions are stored as adjacency arrays
+ * (for each state, its edges as parallel symbol/target arrays), so no string is compared once the index is built.
+ */
+public class AutomatonIndex {
+	// ATTRIBUTES:
+	private final List<String> stateNames; // State id -> state name.
+	private final Map<String, Integer> stateIds; // State name -> state id.
+	private final char[] symbols; // Symbol id -> character.
+	private final int[] symbolOfChar; // Character -> symbol id (-1 if the character is not in the alphabet).
+	private final int initialState;
+	private final boolean[] accepting; // accepting[s] is true if s is a final state.
+	private final int[] edgeStart; // Edges of state s are edgeStart[s] .. edgeStart[s+1]-1.
+	private final int[] edgeSymbol;
+	private final int[] edgeTarget;
+	private final boolean deterministic; // False if some state has transitions with the same symbol to different states.
+
+	/*
+	 * Builds the index from the lists of a FiniteAutomata. States are numbered in order of appearance (declared states,
+	 * initial state, final states, transitions), symbols in order of appearance in the transitions.
+	 * Transition values that are not a single character can never be read by isAccepted, so they are left out.
+	 */
+	public AutomatonIndex(FiniteAutomata automaton) {
+		this(fromLists(automaton));
+	}
+
+	private static Builder fromLists(FiniteAutomata automaton) {
+		Builder builder = new Builder();
+		for (String state : automaton.getStatesList()) {
+			builder.state(state);
+		}
+		builder.setInitial(builder.state(automaton.getInitialState()));
+		for (String state : automaton.getFinalStates()) {
+			builder.setAccepting(builder.state(state));
+		}
+		for (Transition tran : automaton.getTransitionsList()) {
+			int source = builder.state(tran.getStartState());
+			if (tran.getValue().length() != 1) {
+				for (String end : tran.getEndState()) {
+					builder.state(end);
+				}
+				continue;
+			}
+			int symbol = builder.symbol(tran.getValue().charAt(0));
+			for (String end : tran.getEndState()) {
+				builder.addEdge(source, symbol, builder.state(end));
+			}
+		}
+		return builder;
+	}
+
+	/*
+	 * Builds the final arrays from a builder; the edges are grouped by source state with a counting sort.
+	 */
+	private AutomatonIndex(Builder builder) {
+		this.stateNames = builder.stateNames;
+		this.stateIds = builder.stateIds;
+		this.symbols = builder.symbols.toString().toCharArray();
+		int maxChar = -1;
+		for (char c : symbols) {
+			maxChar = Math.max(maxChar, c);
+		}
+		this.symbolOfChar = new int[maxChar + 1];
+		Arrays.fill(symbolOfChar, -1);
+		for (int i = 0; i < symbols.length; i++) {
+			symbolOfChar[symbols[i]] = i;
+		}
+
+		int stateCount = stateNames.size();
+		this.initialState = builder.initialState;
+		this.accepting = new boolean[stateCount];
+		for (int state = 0; state < stateCount; state++) {
+			accepting[state] = builder.accepting.get(state);
+		}
+
+		int edgeCount = builder.edgeCount;
+		this.edgeStart = new int[stateCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			edgeStart[builder.sources[e] + 1]++;
+		}
+		for (int state = 0; state < stateCount; state++) {
+			edgeStart[state + 1] += edgeStart[state];
+		}
+		this.edgeSymbol = new int[edgeCount];
+		this.edgeTarget = new int[edgeCount];
+		int[] next = Arrays.copyOf(edgeStart, stateCount);
+		for (int e = 0; e < edgeCount; e++) {
+			int position = next[builder.sources[e]]++;
+			edgeSymbol[position] = builder.edgeSymbols[e];
+			edgeTarget[position] = builder.targets[e];
+		}
+		this.deterministic = checkDeterministic();
+	}
+
+	/*
+	 * Looks for a repeated (state, symbol) cell with different targets, which may come from a transition with several end states
+	 * or from several transitions (lines) with the same start state and symbol.
+	 */
+	private boolean checkDeterministic() {
+		int[] seenIn = new int[symbols.length]; // seenIn[symbol] = state + 1 if the state already has an edge with the symbol.
+		int[] seenTarget = new int[symbols.length];
+		for (int state = 0; state < getStateCount(); state++) {
+			for (int edge = edgeStart[state]; edge < edgeStart[state + 1]; edge++) {
+				int symbol = edgeSymbol[edge];
+				if (seenIn[symbol] == state + 1) {
+					if (seenTarget[symbol] != edgeTarget[edge]) {
+						return false;
+					}
+				} else {
+					seenIn[symbol] = state + 1;
+					seenTarget[symbol] = edgeTarget[edge];
+				}
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Collects states, symbols and edges (as growing int arrays) before the index is built.
+	 */
+	static class Builder {
+		private final List<String> stateNames = new ArrayList<>();
+		private final Map<String, Integer> stateIds = new HashMap<>();
+		private final StringBuilder symbols = new StringBuilder();
+		private final int[] symbolIds = new int[Character.MAX_VALUE + 1];
+		private final BitSet accepting = new BitSet();
+		private int initialState = -1;
+		private int[] sources = new int[16];
+		private int[] edgeSymbols = new int[16];
+		private int[] targets = new int[16];
+		private int edgeCount;
+
+		Builder() {
+			Arrays.fill(symbolIds, -1);
+		}
+
+		/*
+		 * Id of the state, adding it if it is new.
+		 */
+		int state(String name) {
+			Integer id = stateIds.get(name);
+			if (id == null) {
+				id = stateNames.size();
+				stateIds.put(name, id);
+				stateNames.add(name);
+			}
+			return id;
+		}
+
+		/*
+		 * Id of the state, or -1 if it was not added.
+		 */
+		int existingState(String name) {
+			Integer id = stateIds.get(name);
+			return id == null ? -1 : id;
+		}
+
+		/*
+		 * Id of the symbol, adding it if it is new.
+		 */
+		int symbol(char c) {
+			if (symbolIds[c] < 0) {
+				symbolIds[c] = symbols.length();
+				symbols.append(c);
+			}
+			return symbolIds[c];
+		}
+
+		/*
+		 * Id of the symbol, or -1 if it was not added.
+		 */
+		int existingSymbol(char c) {
+			return symbolIds[c];
+		}
+
+		void setInitial(int state) {
+			this.initialState = state;
+		}
+
+		void setAccepting(int state) {
+			accepting.set(state);
+		}
+
+		void addEdge(int source, int symbol, int target) {
+			if (edgeCount == sources.length) {
+				sources = Arrays.copyOf(sources, edgeCount * 2);
+				edgeSymbols = Arrays.copyOf(edgeSymbols, edgeCount * 2);
+				targets = Arrays.copyOf(targets, edgeCount * 2);
+			}
+			sources[edgeCount] = source;
+			edgeSymbols[edgeCount] = symbol;
+			targets[edgeCount] = target;
+			edgeCount++;
+		}
+
+		AutomatonIndex build() {
+			return new AutomatonIndex(this);
+		}
+	}
+
+	// GETTERS:
+
+	public int getStateCount() {
+		return stateNames.size();
+	}
+
+	public int getSymbolCount() {
+		return symbols.length;
+	}
+
+	public String getStateName(int state) {
+		return stateNames.get(state);
+	}
+
+	/*
+	 * Returns the id of the state, or -1 if it is not a state of the automaton.
+	 */
+	public int getStateId(String state) {
+		Integer id = stateIds.get(state);
+		return id == null ? -1 : id;
+	}
+
+	public char getSymbol(int symbol) {
+		return symbols[symbol];
+	}
+
+	/*
+	 * Returns the symbol id of the character, or -1 if it is not in the alphabet.
+	 */
+	public int symbolOf(char c) {
+		return c < symbolOfChar.length ? symbolOfChar[c] : -1;
+	}
+
+	/*
+	 * Copy of the character -> symbol id map (indexed by character, -1 for characters outside the alphabet).
+	 */
+	public int[] getSymbolMap() {
+		return symbolOfChar.clone();
+	}
+
+	public int getInitialState() {
+		return initialState;
+	}
+
+	public boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	/*
+	 * True if every state has at most one target for each symbol, so the automaton can be compiled into a CompiledDFA.
+	 */
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	public int getEdgeStart(int state) {
+		return edgeStart[state];
+	}
+
+	public int getEdgeEnd(int state) {
+		return edgeStart[state + 1];
+	}
+
+	public int getEdgeSymbol(int edge) {
+		return edgeSymbol[edge];
+	}
+
+	public int getEdgeTarget(int edge) {
+		return edgeTarget[edge];
+	}
+}
@@ -0,0 +1,189 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * Marina Peláez Martínez
+ * Multi-pattern matching engine: runs several compiled automata over a file or a channel and reports every match span.
+ * Matches are leftmost-longest and do not overlap: at each position the longest match of any pattern is taken (the first pattern wins a tie)
+ * and the scan continues after it; positions where no pattern matches are skipped.
+ * The input is read as bytes (each byte is the character with the same code, ISO-8859-1), directly from memory-mapped buffers,
+ * so no String is created per line or per match. Empty matches are not reported.
+ * Memory is bounded: a file is mapped one window at a time and any other channel is read through one fixed-size buffer, and only the bytes
+ * from the start of the current match attempt are kept from one window to the next. A match attempt longer than the window is cut
+ * at the end of the window.
+ * Cost: every match attempt runs each pattern as far as it can go, and when no pattern matches the scan goes on from the next byte,
+ * so the time is O(input length * length of the longest attempt) in the worst case (e.g. the pattern a*b over a long run of a's
+ * with no b). The length of an attempt is bounded by the window, so the time is never worse than linear times the window size.
+ */
+public class AutomatonMatcher {
+	private static final int WINDOW = 1 << 30; // Bytes mapped at a time for large files.
+	private static final int CHANNEL_WINDOW = 1 << 20; // Size of the buffer used to read channels that are not files.
+
+	/*
+	 * A match: bytes [start, end) of the input matched the pattern with the given index.
+	 */
+	public static class Match {
+		private final long start;
+		private final long end;
+		private final int pattern;
+
+		public Match(long start, long end, int pattern) {
+			this.start = start;
+			this.end = end;
+			this.pattern = pattern;
+		}
+
+		public long getStart() {
+			return start;
+		}
+
+		public long getEnd() {
+			return end;
+		}
+
+		public int getPattern() {
+			return pattern;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + start + "," + end + ") pattern " + pattern;
+		}
+	}
+
+	// ATTRIBUTES:
+	private final CompiledDFA[] patterns;
+	private final boolean[] canStart; // canStart[b] is true if some pattern has a transition from its initial state with byte b.
+
+	public AutomatonMatcher(List<CompiledDFA> patterns) {
+		this.patterns = patterns.toArray(new CompiledDFA[0]);
+		this.canStart = new boolean[256];
+		for (CompiledDFA dfa : this.patterns) {
+			for (int b = 0; b < 256; b++) {
+				if (dfa.step(dfa.getInitialState(), (char) b) >= 0) {
+					canStart[b] = true;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Builds a matcher from finite automata (deterministic or not); each one is minimized and compiled first.
+	 */
+	public static AutomatonMatcher of(List<FiniteAutomata> automata) {
+		List<CompiledDFA> compiled = new ArrayList<>();
+		for (FiniteAutomata automaton : automata) {
+			compiled.add(Minimizer.minimize(automaton).compile());
+		}
+		return new AutomatonMatcher(compiled);
+	}
+
+	/*
+	 * Returns every match in the file.
+	 */
+	public List<Match> scan(Path file) throws IOException {
+		List<Match> matches = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			scan(channel, matches::add);
+		}
+		return matches;
+	}
+
+	/*
+	 * Reports every match of the channel to the consumer, in order. A FileChannel is memory-mapped (in windows of 1 GiB;
+	 * a match that crosses the end of a window is retried on a window starting at the match). Other channels are read into a
+	 * sliding buffer of 1 MiB: when a match attempt reaches the end of the buffer, the bytes before the attempt are dropped,
+	 * the rest is moved to the front and the buffer is filled again.
+	 */
+	public void scan(ReadableByteChannel channel, Consumer<Match> consumer) throws IOException {
+		if (channel instanceof FileChannel) {
+			FileChannel file = (FileChannel) channel;
+			long size = file.size();
+			long base = 0;
+			while (base < size) {
+				int length = (int) Math.min(WINDOW, size - base);
+				ByteBuffer window = file.map(FileChannel.MapMode.READ_ONLY, base, length);
+				boolean last = base + length == size;
+				int stopped = scan(window, base, last, consumer);
+				base += stopped;
+			}
+		} else {
+			ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_WINDOW);
+			long base = 0;
+			boolean last = false;
+			while (!last) {
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) < 0) {
+						last = true;
+						break;
+					}
+				}
+				buffer.flip();
+				int stopped = scan(buffer, base, last, consumer);
+				base += stopped;
+				buffer.position(stopped);
+				buffer.compact();
+			}
+		}
+	}
+
+	/*
+	 * Scans buffer[0, limit). Returns the number of bytes fully processed: the limit, or (when this is not the last buffer)
+	 * the position of a match attempt that was still running when the buffer ended, so the caller can continue from there.
+	 */
+	private int scan(ByteBuffer buffer, long offset, boolean last, Consumer<Match> consumer) {
+		int limit = buffer.limit();
+		int position = 0;
+		while (position < limit) {
+			if (!canStart[buffer.get(position) & 0xFF]) {
+				position++;
+				continue;
+			}
+			int bestEnd = -1;
+			int bestPattern = -1;
+			boolean cut = false;
+			for (int p = 0; p < patterns.length; p++) {
+				CompiledDFA dfa = patterns[p];
+				int state = dfa.getInitialState();
+				int end = -1;
+				int j = position;
+				while (j < limit) {
+					state = dfa.step(state, (char) (buffer.get(j) & 0xFF));
+					if (state < 0) {
+						break;
+					}
+					j++;
+					if (dfa.isAccepting(state)) {
+						end = j;
+					}
+				}
+				if (j == limit && state >= 0) {
+					cut = true;
+				}
+				if (end > bestEnd) {
+					bestEnd = end;
+					bestPattern = p;
+				}
+			}
+			if (cut && !last && position > 0) {
+				return position;
+			}
+			if (bestEnd > position) {
+				consumer.accept(new Match(offset + position, offset + bestEnd, bestPattern));
+				position = bestEnd;
+			} else {
+				position++;
+			}
+		}
+		return limit;
+	}
+}
@@ -0,0 +1,80 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * Marina Peláez Martínez
+ * Checks the acceptance of many sequences at once, using all the cores.
+ * The compiled automaton is immutable, so the same CompiledDFA is shared by every thread; results always keep the order of the input.
+ */
+public class BatchAcceptor {
+	private static final int CHUNK = 1 << 16; // Lines of a file processed in parallel at a time.
+
+	// ATTRIBUTES:
+	private final CompiledDFA dfa;
+
+	public BatchAcceptor(CompiledDFA dfa) {
+		this.dfa = dfa;
+	}
+
+	/*
+	 * Builds a batch acceptor for any automaton: a DFA is compiled as it is, an NFA (some state has several targets for a symbol
+	 * in its index, whether they are written in one transition or in several) is determinized and minimized first.
+	 */
+	public static BatchAcceptor of(FiniteAutomata automaton) {
+		return new BatchAcceptor(automaton.index().isDeterministic() ? automaton.compile() : Minimizer.minimize(automaton).compile());
+	}
+
+	/*
+	 * Evaluates every sequence of the stream in parallel; result[i] tells whether the i-th sequence is accepted.
+	 */
+	public boolean[] acceptAll(Stream<? extends CharSequence> sequences) {
+		Boolean[] accepted = sequences.parallel().map(dfa::accepts).toArray(Boolean[]::new);
+		boolean[] result = new boolean[accepted.length];
+		for (int i = 0; i < accepted.length; i++) {
+			result[i] = accepted[i];
+		}
+		return result;
+	}
+
+	/*
+	 * Reads the input file (one sequence per line) and writes to the output file one line per sequence, in the same order:
+	 * "<sequence> ACCEPTED" or "<sequence> NOT ACCEPTED". The file is processed in chunks of lines, so memory does not grow with its size.
+	 * Returns the number of accepted sequences.
+	 */
+	public long acceptFile(Path input, Path output) throws IOException {
+		long acceptedCount = 0;
+		try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+				BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			List<String> chunk = new ArrayList<>(CHUNK);
+			boolean[] accepted = new boolean[CHUNK];
+			String line = reader.readLine();
+			while (line != null) {
+				chunk.clear();
+				while (line != null && chunk.size() < CHUNK) {
+					chunk.add(line);
+					line = reader.readLine();
+				}
+				IntStream.range(0, chunk.size()).parallel().forEach(i -> accepted[i] = dfa.accepts(chunk.get(i)));
+				for (int i = 0; i < chunk.size(); i++) {
+					writer.write(chunk.get(i));
+					writer.write(accepted[i] ? " ACCEPTED" : " NOT ACCEPTED");
+					writer.newLine();
+					if (accepted[i]) {
+						acceptedCount++;
+					}
+				}
+			}
+		}
+		return acceptedCount;
+	}
+}
@@ -0,0 +1,103 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Marina Peláez Martínez
+ * Deterministic finite automaton compiled into a transition table.
+ * The table is a flat int array indexed by state * symbolCount + symbol (-1 means there is no transition), and characters are
+ * mapped to symbol ids through an array indexed by the character, so each input character costs two array loads.
+ * It is immutable once built, so one instance can be shared by several threads.
+ */
+public class CompiledDFA {
+	// ATTRIBUTES:
+	private final int[] symbolOfChar; // Character -> symbol id (-1 if the character is not in the alphabet).
+	private final int symbolCount;
+	private final int[] table; // table[state * symbolCount + symbol] = next state, or -1.
+	private final boolean[] accepting;
+	private final int initialState;
+	private final String[] stateNames;
+
+	/*
+	 * Compiles the automaton described by the index. It must be deterministic (at most one target per state and symbol).
+	 */
+	public CompiledDFA(AutomatonIndex index) {
+		this.symbolOfChar = index.getSymbolMap();
+		this.symbolCount = index.getSymbolCount();
+		int stateCount = index.getStateCount();
+		this.table = new int[stateCount * symbolCount];
+		Arrays.fill(table, -1);
+		this.accepting = new boolean[stateCount];
+		this.stateNames = new String[stateCount];
+		for (int state = 0; state < stateCount; state++) {
+			accepting[state] = index.isAccepting(state);
+			stateNames[state] = index.getStateName(state);
+			for (int edge = index.getEdgeStart(state); edge < index.getEdgeEnd(state); edge++) {
+				int cell = state * symbolCount + index.getEdgeSymbol(edge);
+				if (table[cell] != -1 && table[cell] != index.getEdgeTarget(edge)) {
+					throw new IllegalArgumentException("The finite automata IS NOT deterministic: state " + stateNames[state]
+							+ " has several transitions with " + index.getSymbol(index.getEdgeSymbol(edge)));
+				}
+				table[cell] = index.getEdgeTarget(edge);
+			}
+		}
+		this.initialState = index.getInitialState();
+	}
+
+	/*
+	 * Runs the automaton over the characters of the input, without splitting or copying it.
+	 */
+	public boolean accepts(CharSequence input) {
+		int state = initialState;
+		for (int i = 0; i < input.length(); i++) {
+			state = step(state, input.charAt(i));
+			if (state < 0) {
+				return false;
+			}
+		}
+		return accepting[state];
+	}
+
+	/*
+	 * Next state from the given state with the character c, or -1 if there is none.
+	 */
+	public int step(int state, char c) {
+		int symbol = c < symbolOfChar.length ? symbolOfChar[c] : -1;
+		if (symbol < 0) {
+			return -1;
+		}
+		return table[state * symbolCount + symbol];
+	}
+
+	// GETTERS:
+
+	public int getInitialState() {
+		return initialState;
+	}
+
+	public boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	public int getStateCount() {
+		return accepting.length;
+	}
+
+	public String getStateName(int state) {
+		return stateNames[state];
+	}
+
+	/*
+	 * Characters of the alphabet, in increasing order.
+	 */
+	public char[] getAlphabet() {
+		char[] alphabet = new char[symbolCount];
+		int size = 0;
+		for (int c = 0; c < symbolOfChar.length; c++) {
+			if (symbolOfChar[c] >= 0) {
+				alphabet[size++] = (char) c;
+			}
+		}
+		return alphabet;
+	}
+}
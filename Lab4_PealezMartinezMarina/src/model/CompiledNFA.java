@@ -0,0 +1,127 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Marina Peláez Martínez
+ * Non-deterministic finite automaton compiled for direct simulation (no determinization needed).
+ * The set of active states is a bitset (long[]), and for every state and symbol the set of targets is precomputed as a bitset too,
+ * so one input character advances all the active states by OR-ing their target bitsets word by word.
+ * It is immutable once built; the state sets are created per call, so one instance can be shared by several threads.
+ */
+public class CompiledNFA {
+	// ATTRIBUTES:
+	private final int[] symbolOfChar; // Character -> symbol id (-1 if the character is not in the alphabet).
+	private final int symbolCount;
+	private final int stateCount;
+	private final int words; // Number of longs of a state set.
+	private final long[][] targets; // targets[state * symbolCount + symbol] = bitset of next states (null if there are none).
+	private final long[] accepting; // Bitset of the final states.
+	private final int initialState;
+
+	public CompiledNFA(AutomatonIndex index) {
+		this.symbolOfChar = index.getSymbolMap();
+		this.symbolCount = index.getSymbolCount();
+		this.stateCount = index.getStateCount();
+		this.words = (stateCount + 63) >>> 6;
+		this.targets = new long[stateCount * symbolCount][];
+		this.accepting = new long[words];
+		for (int state = 0; state < stateCount; state++) {
+			if (index.isAccepting(state)) {
+				accepting[state >>> 6] |= 1L << state;
+			}
+			for (int edge = index.getEdgeStart(state); edge < index.getEdgeEnd(state); edge++) {
+				int cell = state * symbolCount + index.getEdgeSymbol(edge);
+				if (targets[cell] == null) {
+					targets[cell] = new long[words];
+				}
+				int target = index.getEdgeTarget(edge);
+				targets[cell][target >>> 6] |= 1L << target;
+			}
+		}
+		this.initialState = index.getInitialState();
+	}
+
+	/*
+	 * Simulates the automaton over the input: time is linear in the input length (times the active states and the words of a set).
+	 */
+	public boolean accepts(CharSequence input) {
+		long[] current = start();
+		long[] next = new long[words];
+		for (int i = 0; i < input.length(); i++) {
+			int symbol = symbolOf(input.charAt(i));
+			if (symbol < 0 || !step(current, symbol, next)) {
+				return false;
+			}
+			long[] swap = current;
+			current = next;
+			next = swap;
+		}
+		return isAccepting(current);
+	}
+
+	/*
+	 * New state set containing only the initial state.
+	 */
+	public long[] start() {
+		long[] set = new long[words];
+		set[initialState >>> 6] |= 1L << initialState;
+		return set;
+	}
+
+	/*
+	 * Writes into "to" the states reachable from the states of "from" with the symbol. Returns false if "to" is empty.
+	 */
+	public boolean step(long[] from, int symbol, long[] to) {
+		Arrays.fill(to, 0L);
+		boolean any = false;
+		for (int w = 0; w < words; w++) {
+			long bits = from[w];
+			while (bits != 0) {
+				int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				long[] reached = targets[state * symbolCount + symbol];
+				if (reached != null) {
+					for (int k = 0; k < words; k++) {
+						to[k] |= reached[k];
+					}
+					any = true;
+				}
+			}
+		}
+		return any;
+	}
+
+	/*
+	 * True if the set contains a final state.
+	 */
+	public boolean isAccepting(long[] set) {
+		for (int w = 0; w < words; w++) {
+			if ((set[w] & accepting[w]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Symbol id of the character, or -1 if it is not in the alphabet.
+	 */
+	public int symbolOf(char c) {
+		return c < symbolOfChar.length ? symbolOfChar[c] : -1;
+	}
+
+	// GETTERS:
+
+	public int getSymbolCount() {
+		return symbolCount;
+	}
+
+	public int getStateCount() {
+		return stateCount;
+	}
+
+	public int getWords() {
+		return words;
+	}
+}
@@ -0,0 +1,81 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Marina Peláez Martínez
+ * Converts a non-deterministic finite automaton into an equivalent DFA with the subset construction.
+ * Every DFA state is the set of NFA states the NFA can be in after reading the same input; only the sets reachable from the
+ * initial state are built. A DFA state is named after its NFA states, e.g. {x y}.
+ */
+public class Determinizer {
+
+	/*
+	 * Returns a DFA that accepts the same sequences as the given automaton.
+	 */
+	public static FiniteAutomata determinize(FiniteAutomata automaton) {
+		AutomatonIndex index = new AutomatonIndex(automaton);
+		CompiledNFA nfa = new CompiledNFA(index);
+
+		Map<StateSet, String> names = new HashMap<>();
+		List<long[]> pending = new ArrayList<>(); // Sets discovered but not expanded yet (breadth-first).
+		List<String> states = new ArrayList<>();
+		List<String> finalStates = new ArrayList<>();
+		List<Transition> transitions = new ArrayList<>();
+		List<String> alphabet = new ArrayList<>();
+		for (int symbol = 0; symbol < index.getSymbolCount(); symbol++) {
+			alphabet.add(String.valueOf(index.getSymbol(symbol)));
+		}
+
+		long[] start = nfa.start();
+		String initialState = name(start, index, nfa, names, states, finalStates, pending);
+		for (int next = 0; next < pending.size(); next++) {
+			long[] from = pending.get(next);
+			String fromName = names.get(new StateSet(from));
+			for (int symbol = 0; symbol < index.getSymbolCount(); symbol++) {
+				long[] to = new long[nfa.getWords()];
+				if (nfa.step(from, symbol, to)) {
+					String toName = name(to, index, nfa, names, states, finalStates, pending);
+					List<String> end = new ArrayList<>();
+					end.add(toName);
+					transitions.add(new Transition(fromName, alphabet.get(symbol), end));
+				}
+			}
+		}
+		return new FiniteAutomata(states, alphabet, transitions, finalStates, initialState);
+	}
+
+	/*
+	 * Returns the name of the DFA state for the set, creating the state (and queuing it for expansion) the first time the set is seen.
+	 */
+	private static String name(long[] set, AutomatonIndex index, CompiledNFA nfa, Map<StateSet, String> names,
+			List<String> states, List<String> finalStates, List<long[]> pending) {
+		StateSet key = new StateSet(set);
+		String name = names.get(key);
+		if (name == null) {
+			StringBuilder sb = new StringBuilder("{");
+			for (int w = 0; w < set.length; w++) {
+				long bits = set[w];
+				while (bits != 0) {
+					int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					if (sb.length() > 1) {
+						sb.append(' ');
+					}
+					sb.append(index.getStateName(state));
+				}
+			}
+			name = sb.append('}').toString();
+			names.put(key, name);
+			states.add(name);
+			if (nfa.isAccepting(set)) {
+				finalStates.add(name);
+			}
+			pending.add(set);
+		}
+		return name;
+	}
+}
@@ -1,11 +1,12 @@
 package model;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
 
 /*
  * Marina Peláez Martínez
@@ -20,6 +21,9 @@ public class FiniteAutomata {
 	private List<Transition> transitionsList; // Each Transition object represents a transition in the automaton, consisting of an initial state, a value, and a list of final states reached after the transition.
 	private List<String> alphabet;  // Symbols that the automaton can read as input.
 	private List<String> statesList; // List of all states present in the finite automaton.
+	private CompiledDFA compiledDFA; // Transition table used by isAccepted, built the first time it is needed.
+	private CompiledNFA compiledNFA; // Bitset simulation used by isAccepted when the automaton is not deterministic.
+	private AutomatonIndex index; // Int-indexed states, symbols and transitions shared by compiledDFA and compiledNFA.
 	
 
 	/*
@@ -33,6 +37,17 @@ public class FiniteAutomata {
 		this.statesList=new ArrayList<>();
 		readFile(fileName);
 	}
+
+	/*
+	 * Initializes the FA from its components (used for the automata built by the Determinizer, Minimizer...).
+	 */
+	public FiniteAutomata(List<String> statesList, List<String> alphabet, List<Transition> transitionsList, List<String> finalStates, String initialState) {
+		this.statesList=statesList;
+		this.alphabet=alphabet;
+		this.transitionsList=transitionsList;
+		this.finalStates=finalStates;
+		this.initialState=initialState;
+	}
 	
 
 	// GETTERS (accesing to the private propierties of the FA):
@@ -58,76 +73,44 @@ public class FiniteAutomata {
 	}
 	
 	/*
-	 * Reads the file containing FA information and extracts states, alphabet, transitions, final states, and the initial state to complete the FA's internal data structures.
-	 * It parses and extracts information from a file.
+	 * Reads the file containing FA information (states, alphabet, transitions, final states and initial state) with FiniteAutomataReader,
+	 * which reads it in one pass, checks that it is consistent and builds the index of the automaton at the same time.
+	 * An inconsistent file throws an IllegalArgumentException with the line of the error.
 	 */
 	private void readFile(String fileName) {
-		try {
-			Scanner scanner = new Scanner(new File(fileName)); // We open the "fileName" with a scanner.
-			// 								PARSING THE FILE						//
-			// STATES LISTS: 
-			scanner.nextLine(); // Reads the next line in the file (assuming it's the line indicating the states list) and moves the scanner's position to the following line.
-			this.statesList=Arrays.asList(scanner.nextLine()); // Reads the line containing the states list, splits it (assuming the states are comma-separated), and stores the states in the statesList.
-			
-			// ALPHABET:
-			scanner.nextLine(); // Reads the line with the alphabet information and moves the scanner to the next line.
-			this.alphabet=Arrays.asList(scanner.nextLine()); // Reads and stores the alphabet symbols in the alphabet list.
-			
-			// TRANSITIONS:
-			scanner.nextLine(); // Reads the line indicating the start of transitions and moves the scanner forward.
-			
-			String transition;
-			while(!scanner.hasNext("FINAL")) {  // Reads lines until it finds the string "FINAL" (end of transitions).
-				transition = scanner.nextLine(); // Reads each line that represents a transition in the finite automaton.
-				List<String> splitedTransition = Arrays.asList(transition.split(",")); // Splits the transition line into its components (start state, value, end states) based on the comma (,) separator.
-				
-				// Creates a new Transition object and sets its start state, value, and end states based on the parsed data. 
-				Transition tran= new Transition(); 
-				tran.setStartState(splitedTransition.get(0));
-				tran.setValue(splitedTransition.get(1));
-				List<String> endStates = new ArrayList<>();
-				for(int i=2;i<splitedTransition.size();i++) { // Adds this transition to the transitionsList.
-					 endStates.add(splitedTransition.get(i));
-				}
-				tran.setEndState(endStates);
-	            this.transitionsList.add(tran);
-			}
-
-			// FINAL STATE:
-			scanner.nextLine(); // Reads the line indicating the start of final states and moves the scanner forward.
-			this.finalStates = Arrays.asList(scanner.next().split(",")); // Reads and stores the final states in the finalStates list.
-			
-			// INITIAL STATE:
-			scanner.nextLine(); // Skips one line.
-			scanner.nextLine(); // Skips another line.
-			this.initialState = scanner.nextLine(); // Reads and stores the initial state of the finite automaton.
-			
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8)) {
+			FiniteAutomata read = FiniteAutomataReader.read(reader);
+			this.statesList = read.statesList;
+			this.alphabet = read.alphabet;
+			this.transitionsList = read.transitionsList;
+			this.finalStates = read.finalStates;
+			this.initialState = read.initialState;
+			this.index = read.index;
 
-		// Try catch exception handling to handle the possibility of the file not being found (FileNotFoundException). 
-		} catch (FileNotFoundException e) {
+		// Try catch exception handling to handle the possibility of the file not being found or not being readable (IOException).
+		} catch (IOException e) {
 			e.printStackTrace(); // If an exception occurs, it prints the stack trace.
 		}
 	}
-	
+
 	/*
-	 * Given a start state and a value, this method searches through the transitions list to determine the next state. 
-	 * If the transition is not found or leads to multiple states, it returns "No state".
+	 * Index built while reading the file (see FiniteAutomataReader); compile() and compileNFA() use it instead of building a new one.
 	 */
-	private String nextState(String startState, String value) {
-		for(Transition tran: transitionsList) { 
-			if(tran.getStartState().equals(startState) && tran.getValue().equals(value)) { //  Checks if the current transition in the loop matches the provided startState and value.
-				if(tran.getEndState().size() == 1){ 
-					// If the transition leads to a single state (indicating a deterministic transition), it recovers and returns that state as the next state.
-					return tran.getEndState().get(0);
-				}
-			}
+	void setIndex(AutomatonIndex index) {
+		this.index = index;
+	}
+
+	AutomatonIndex index() {
+		if (this.index == null) {
+			this.index = new AutomatonIndex(this);
 		}
-		return "No state"; // If no valid state is found in the transitions that match the provided startState and value, or if the transition does not lead to a single state.
+		return this.index;
 	}
 	
 	/*
 	 * This method checks a property of a DFA: In a DFA, for each state and input symbol, the transition function must lead to exactly one next state.
 	 * If any transition violates this property by leading to multiple states, then the structure is not a DFA.
+	 * This also covers several transitions (lines) with the same start state and value, which the index finds as a repeated (state, symbol) cell.
 	 */
 	public boolean AfIsDFA() {
 		for(Transition tran : transitionsList) {
@@ -137,29 +120,44 @@ public class FiniteAutomata {
 				return false;
 			}
 		}
-		return true;
+		return index().isDeterministic();
 	}
 	
+	/*
+	 * Returns the automaton compiled into a transition table (see CompiledDFA). It is built once and reused.
+	 * Throws IllegalArgumentException if the automaton is not deterministic (see AutomatonIndex.isDeterministic()).
+	 */
+	public CompiledDFA compile() {
+		if (this.compiledDFA == null) {
+			this.compiledDFA = new CompiledDFA(index());
+		}
+		return this.compiledDFA;
+	}
+
+	/*
+	 * Returns the automaton compiled for bitset simulation (see CompiledNFA). It works for any automaton, deterministic or not.
+	 */
+	public CompiledNFA compileNFA() {
+		if (this.compiledNFA == null) {
+			this.compiledNFA = new CompiledNFA(index());
+		}
+		return this.compiledNFA;
+	}
+
 	/*
 	 * Checks whether a provided sequence is accepted by the finite automaton. 
-	 * It goes through the sequence character by character, utilizing the nextState() method to determine the next state for each character. 
+	 * A DFA runs on its compiled transition table: one table lookup per character, with no splitting of the sequence.
+	 * Otherwise (NFA: some state and symbol have several targets in the index) all the possible current states are followed
+	 * at the same time as a bitset, so no determinization is needed.
 	 * If the sequence ends in a final state (of the defined final states), it returns true; otherwise, it returns false.
 	 */
 	public boolean isAccepted(String sequence) {
-		String actualState = this.initialState;  
-		String [] splittedSequence = sequence.split(""); // Splits the input sequence into an array of individual characters.
-			for(String character : splittedSequence) {  
-				// For each character in the sequence, it calculates the next state based on the current state (actualState, being the first actual in the first loop) and the character it takes it from the nextState() method.
-				String nextState = nextState(actualState, character);
-				if(nextState.equals("No state")) {  // Analyzing the nextState returned by the nextState() method.
-					return false;
-				}
-				actualState = nextState; // Updates  the actualState to the nextState for the next iteration.
-			}
-			if(this.finalStates.contains(actualState)) {
-				// Checks if the actualState (state after processing the entire sequence, bc it passed all through conditions) is contained in the finalStates list.
-				return true; // If the actualState is a final state --> sequence has been processed successfully
-			}
-			return false; // If the final state check fails --> actualState not contained in the finalStates.
+		if (this.compiledDFA != null) {
+			return this.compiledDFA.accepts(sequence);
+		}
+		if (this.compiledNFA != null) {
+			return this.compiledNFA.accepts(sequence);
+		}
+		return index().isDeterministic() ? compile().accepts(sequence) : compileNFA().accepts(sequence);
 	}
 }
@@ -0,0 +1,199 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Marina Peláez Martínez
+ * Reads a finite automaton in the FA.in format in a single pass over the lines:
+ *
+ * SET OF STATES        (comma-separated states)
+ * ALPHABET             (comma-separated symbols, one character each)
+ * TRANSITIONS          (one per line: start state,symbol,end state[,end state...])
+ * FINAL STATES         (comma-separated states)
+ * INITIAL STATE        (one state)
+ *
+ * Every section header must appear once and in this order; values are trimmed and empty lines are ignored.
+ * While the lines are read, states and symbols get their ids and the transitions are added to the adjacency arrays,
+ * so the AutomatonIndex is ready at the end without a second pass over the transitions.
+ * Several lines with the same start state and symbol are merged into one Transition whose end states are those of all the lines
+ * (each one once), so a nondeterministic choice is always seen as a Transition with several end states (AfIsDFA() is false).
+ * A file that is not consistent (a repeated state or symbol, or a transition, final state or initial state that uses
+ * a state or symbol that was not declared) is rejected with an IllegalArgumentException that gives the line number.
+ */
+public class FiniteAutomataReader {
+	private static final String[] SECTIONS = { "SET OF STATES", "ALPHABET", "TRANSITIONS", "FINAL STATES", "INITIAL STATE" };
+	private static final int STATES = 0, ALPHABET = 1, TRANSITIONS = 2, FINAL_STATES = 3, INITIAL_STATE = 4;
+
+	// ATTRIBUTES (filled while reading):
+	private final AutomatonIndex.Builder builder = new AutomatonIndex.Builder();
+	private final List<String> statesList = new ArrayList<>();
+	private final List<String> alphabet = new ArrayList<>();
+	private final List<Transition> transitionsList = new ArrayList<>();
+	private final List<String> finalStates = new ArrayList<>();
+	private final Map<Long, Transition> transitionOfCell = new HashMap<>(); // (start state, symbol) -> its merged Transition.
+	private final Set<Long> edges = new HashSet<>(); // (start state, symbol, end state) already added.
+	private String initialState;
+	private int lineNumber;
+
+	/*
+	 * Reads the automaton from the reader (which is not closed) and returns it with its index already built.
+	 */
+	public static FiniteAutomata read(Reader reader) throws IOException {
+		return new FiniteAutomataReader().readAll(reader);
+	}
+
+	private FiniteAutomata readAll(Reader reader) throws IOException {
+		BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+		int section = -1;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+			int header = sectionOf(line);
+			if (header >= 0) {
+				if (header != section + 1) {
+					throw error("expected " + (section + 1 < SECTIONS.length ? SECTIONS[section + 1] : "end of file") + " but found " + line);
+				}
+				section = header;
+				continue;
+			}
+			switch (section) {
+			case STATES:
+				for (String state : split(line)) {
+					if (builder.existingState(state) >= 0) {
+						throw error("state " + state + " is declared twice");
+					}
+					statesList.add(state);
+					builder.state(state);
+				}
+				break;
+			case ALPHABET:
+				for (String symbol : split(line)) {
+					if (symbol.length() != 1) {
+						throw error("symbol " + symbol + " must be a single character");
+					}
+					if (builder.existingSymbol(symbol.charAt(0)) >= 0) {
+						throw error("symbol " + symbol + " is declared twice");
+					}
+					alphabet.add(symbol);
+					builder.symbol(symbol.charAt(0));
+				}
+				break;
+			case TRANSITIONS:
+				readTransition(line);
+				break;
+			case FINAL_STATES:
+				for (String state : split(line)) {
+					int id = declaredState(state);
+					finalStates.add(statesList.get(id));
+					builder.setAccepting(id);
+				}
+				break;
+			case INITIAL_STATE:
+				if (initialState != null) {
+					throw error("there is more than one initial state");
+				}
+				int id = declaredState(line);
+				initialState = statesList.get(id);
+				builder.setInitial(id);
+				break;
+			default:
+				throw error("expected " + SECTIONS[0] + " but found " + line);
+			}
+		}
+		if (section != INITIAL_STATE || initialState == null) {
+			throw error("missing " + (section == INITIAL_STATE ? "initial state" : SECTIONS[section + 1]));
+		}
+		FiniteAutomata automaton = new FiniteAutomata(statesList, alphabet, transitionsList, finalStates, initialState);
+		automaton.setIndex(builder.build());
+		return automaton;
+	}
+
+	/*
+	 * start state,symbol,end state[,end state...]: the states and the symbol must be declared.
+	 * The stored names are the declared String objects, so every state name is kept in memory only once.
+	 * If there is already a transition with the same start state and symbol, the new end states are added to it.
+	 */
+	private void readTransition(String line) {
+		List<String> parts = split(line);
+		if (parts.size() < 3) {
+			throw error("a transition needs a start state, a symbol and at least one end state");
+		}
+		int source = declaredState(parts.get(0));
+		String value = parts.get(1);
+		int symbol = value.length() == 1 ? builder.existingSymbol(value.charAt(0)) : -1;
+		if (symbol < 0) {
+			throw error("symbol " + value + " is not in the alphabet");
+		}
+		long cell = (long) source * alphabet.size() + symbol;
+		Transition transition = transitionOfCell.get(cell);
+		if (transition == null) {
+			transition = new Transition(statesList.get(source), alphabet.get(symbol), new ArrayList<>(parts.size() - 2));
+			transitionOfCell.put(cell, transition);
+			transitionsList.add(transition);
+		}
+		for (int i = 2; i < parts.size(); i++) {
+			int target = declaredState(parts.get(i));
+			if (edges.add(cell * statesList.size() + target)) {
+				transition.getEndState().add(statesList.get(target));
+				builder.addEdge(source, symbol, target);
+			}
+		}
+	}
+
+	private int declaredState(String state) {
+		int id = builder.existingState(state);
+		if (id < 0) {
+			throw error("state " + state + " is not in the set of states");
+		}
+		return id;
+	}
+
+	private static int sectionOf(String line) {
+		for (int i = 0; i < SECTIONS.length; i++) {
+			if (SECTIONS[i].equals(line)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Comma-separated values, trimmed; empty values are not allowed.
+	 */
+	private List<String> split(String line) {
+		if (line.indexOf(',') < 0) {
+			return Collections.singletonList(line);
+		}
+		List<String> values = new ArrayList<>();
+		int start = 0;
+		while (true) {
+			int comma = line.indexOf(',', start);
+			String value = (comma < 0 ? line.substring(start) : line.substring(start, comma)).trim();
+			if (value.isEmpty()) {
+				throw error("empty value");
+			}
+			values.add(value);
+			if (comma < 0) {
+				return values;
+			}
+			start = comma + 1;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException("Line " + lineNumber + ": " + message);
+	}
+}
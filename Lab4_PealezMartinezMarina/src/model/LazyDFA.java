@@ -0,0 +1,116 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Marina Peláez Martínez
+ * Runs an NFA at DFA speed by building the DFA states (subsets of NFA states) only when the input reaches them.
+ * Every computed transition is cached in a table, so inputs that keep visiting the same states cost one table lookup per character.
+ * The cache is bounded: when it holds maxStates states it is flushed and rebuilt from the current state on, so NFAs whose full DFA
+ * would be exponential still run in bounded memory.
+ * Not thread-safe (the cache changes while running); use one LazyDFA per thread.
+ */
+public class LazyDFA {
+	private static final int UNKNOWN = -2; // Transition not computed yet.
+	private static final int DEAD = -1; // No NFA state is reached.
+
+	// ATTRIBUTES:
+	private final CompiledNFA nfa;
+	private final int symbolCount;
+	private final int maxStates;
+	private final Map<StateSet, Integer> ids = new HashMap<>(); // NFA state set -> DFA state id.
+	private final List<long[]> sets = new ArrayList<>(); // DFA state id -> NFA state set.
+	private final int[] transitions; // transitions[state * symbolCount + symbol] = next DFA state, DEAD or UNKNOWN.
+	private final boolean[] accepting;
+	private int initialState;
+	private int flushes; // Number of times the cache was full.
+
+	public LazyDFA(FiniteAutomata automaton, int maxStates) {
+		this.nfa = new CompiledNFA(new AutomatonIndex(automaton));
+		this.symbolCount = nfa.getSymbolCount();
+		this.maxStates = Math.max(2, maxStates);
+		this.transitions = new int[this.maxStates * symbolCount];
+		this.accepting = new boolean[this.maxStates];
+		flush();
+	}
+
+	public boolean accepts(CharSequence input) {
+		int state = initialState;
+		for (int i = 0; i < input.length(); i++) {
+			int symbol = nfa.symbolOf(input.charAt(i));
+			if (symbol < 0) {
+				return false;
+			}
+			int next = transitions[state * symbolCount + symbol];
+			if (next == UNKNOWN) {
+				next = computeTransition(state, symbol);
+			}
+			if (next == DEAD) {
+				return false;
+			}
+			state = next;
+		}
+		return accepting[state];
+	}
+
+	/*
+	 * Computes the DFA transition with the NFA and caches it. If the cache is full it is flushed first; the target state is then
+	 * added to the fresh cache (the transition itself is not recorded, since its source state is gone).
+	 */
+	private int computeTransition(int state, int symbol) {
+		long[] from = sets.get(state);
+		long[] to = new long[nfa.getWords()];
+		if (!nfa.step(from, symbol, to)) {
+			transitions[state * symbolCount + symbol] = DEAD;
+			return DEAD;
+		}
+		Integer known = ids.get(new StateSet(to));
+		if (known != null) {
+			transitions[state * symbolCount + symbol] = known;
+			return known;
+		}
+		if (sets.size() == maxStates) {
+			flush();
+			flushes++;
+			return add(to);
+		}
+		int target = add(to);
+		transitions[state * symbolCount + symbol] = target;
+		return target;
+	}
+
+	private int add(long[] set) {
+		int id = sets.size();
+		sets.add(set);
+		ids.put(new StateSet(set), id);
+		accepting[id] = nfa.isAccepting(set);
+		return id;
+	}
+
+	/*
+	 * Empties the cache, keeping only the initial state.
+	 */
+	private void flush() {
+		ids.clear();
+		sets.clear();
+		Arrays.fill(transitions, UNKNOWN);
+		this.initialState = add(nfa.start());
+	}
+
+	// GETTERS:
+
+	/*
+	 * Number of DFA states currently cached.
+	 */
+	public int getCachedStates() {
+		return sets.size();
+	}
+
+	public int getFlushes() {
+		return flushes;
+	}
+}
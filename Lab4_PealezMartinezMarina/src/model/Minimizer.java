@@ -0,0 +1,331 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Marina Peláez Martínez
+ * Builds the minimal DFA equivalent to a finite automaton:
+ * 1. NFAs (some state has several targets for a symbol, see AutomatonIndex.isDeterministic()) are determinized first
+ *    (subset construction) and the DFA is completed with a sink state.
+ * 2. States not reachable from the initial state are removed.
+ * 3. Equivalent states are merged with Hopcroft's partition refinement, in O(n * |alphabet| * log n).
+ * 4. Dead states (that cannot reach a final state, like the sink) are removed, so the result is a partial DFA with the minimal number of states.
+ * A merged state is named after the states it contains, e.g. {q s}.
+ */
+public class Minimizer {
+
+	/*
+	 * Returns the minimal DFA that accepts the same sequences as the given automaton.
+	 * With assertions enabled (java -ea), the result is checked to accept the same language as the (determinized) input.
+	 */
+	public static FiniteAutomata minimize(FiniteAutomata automaton) {
+		AutomatonIndex index = new AutomatonIndex(automaton);
+		if (!index.isDeterministic()) {
+			index = new AutomatonIndex(Determinizer.determinize(automaton));
+		}
+		int symbols = index.getSymbolCount();
+
+		// Complete transition table over the reachable states, plus a sink state.
+		int[] reachable = reachableStates(index);
+		int[] newId = new int[index.getStateCount()];
+		Arrays.fill(newId, -1);
+		for (int i = 0; i < reachable.length; i++) {
+			newId[reachable[i]] = i;
+		}
+		int sink = reachable.length;
+		int stateCount = sink + 1;
+		int[] delta = new int[stateCount * symbols];
+		Arrays.fill(delta, sink);
+		boolean[] accepting = new boolean[stateCount];
+		for (int i = 0; i < reachable.length; i++) {
+			int state = reachable[i];
+			accepting[i] = index.isAccepting(state);
+			for (int edge = index.getEdgeStart(state); edge < index.getEdgeEnd(state); edge++) {
+				delta[i * symbols + index.getEdgeSymbol(edge)] = newId[index.getEdgeTarget(edge)];
+			}
+		}
+
+		int[] blockOf = refine(delta, accepting, stateCount, symbols);
+		FiniteAutomata minimal = buildQuotient(index, reachable, delta, accepting, blockOf, sink, symbols);
+		assert sameLanguage(new CompiledDFA(index), minimal.compile()) : "The minimized automaton does not accept the same language";
+		return minimal;
+	}
+
+	/*
+	 * Checks that two DFAs accept the same language by walking the pairs of states reachable in both at the same time
+	 * (-1 stands for the missing dead state): the languages differ if and only if some pair has one final state and one that is not.
+	 */
+	static boolean sameLanguage(CompiledDFA a, CompiledDFA b) {
+		Set<Long> seen = new HashSet<>();
+		List<int[]> pending = new ArrayList<>();
+		pending.add(new int[] { a.getInitialState(), b.getInitialState() });
+		seen.add(pair(a.getInitialState(), b.getInitialState()));
+		for (int next = 0; next < pending.size(); next++) {
+			int stateA = pending.get(next)[0];
+			int stateB = pending.get(next)[1];
+			boolean acceptsA = stateA >= 0 && a.isAccepting(stateA);
+			boolean acceptsB = stateB >= 0 && b.isAccepting(stateB);
+			if (acceptsA != acceptsB) {
+				return false;
+			}
+			if (stateA < 0 && stateB < 0) {
+				continue;
+			}
+			for (char c : a.getAlphabet()) {
+				visit(a, b, stateA, stateB, c, seen, pending);
+			}
+			for (char c : b.getAlphabet()) {
+				visit(a, b, stateA, stateB, c, seen, pending);
+			}
+		}
+		return true;
+	}
+
+	private static void visit(CompiledDFA a, CompiledDFA b, int stateA, int stateB, char c, Set<Long> seen, List<int[]> pending) {
+		int nextA = stateA < 0 ? -1 : a.step(stateA, c);
+		int nextB = stateB < 0 ? -1 : b.step(stateB, c);
+		if (seen.add(pair(nextA, nextB))) {
+			pending.add(new int[] { nextA, nextB });
+		}
+	}
+
+	private static long pair(int stateA, int stateB) {
+		return ((long) stateA << 32) | (stateB & 0xFFFFFFFFL);
+	}
+
+	/*
+	 * States reachable from the initial state (breadth-first), the initial state first.
+	 */
+	private static int[] reachableStates(AutomatonIndex index) {
+		boolean[] seen = new boolean[index.getStateCount()];
+		int[] queue = new int[index.getStateCount()];
+		int size = 0;
+		queue[size++] = index.getInitialState();
+		seen[index.getInitialState()] = true;
+		for (int head = 0; head < size; head++) {
+			int state = queue[head];
+			for (int edge = index.getEdgeStart(state); edge < index.getEdgeEnd(state); edge++) {
+				int target = index.getEdgeTarget(edge);
+				if (!seen[target]) {
+					seen[target] = true;
+					queue[size++] = target;
+				}
+			}
+		}
+		return Arrays.copyOf(queue, size);
+	}
+
+	/*
+	 * Hopcroft's algorithm. The partition is kept in one array of states where every block is a contiguous range;
+	 * splitting a block only moves its marked states to the front of its range, so a split costs as much as the states marked.
+	 * Returns the block of every state.
+	 */
+	private static int[] refine(int[] delta, boolean[] accepting, int stateCount, int symbols) {
+		// Predecessors of every (state, symbol), in adjacency arrays.
+		int[] predecessorStart = new int[stateCount * symbols + 1];
+		for (int state = 0; state < stateCount; state++) {
+			for (int symbol = 0; symbol < symbols; symbol++) {
+				predecessorStart[delta[state * symbols + symbol] * symbols + symbol + 1]++;
+			}
+		}
+		for (int i = 0; i < stateCount * symbols; i++) {
+			predecessorStart[i + 1] += predecessorStart[i];
+		}
+		int[] predecessors = new int[stateCount * symbols];
+		int[] fill = Arrays.copyOf(predecessorStart, stateCount * symbols);
+		for (int state = 0; state < stateCount; state++) {
+			for (int symbol = 0; symbol < symbols; symbol++) {
+				predecessors[fill[delta[state * symbols + symbol] * symbols + symbol]++] = state;
+			}
+		}
+
+		// Initial partition: final states first, then the rest.
+		int[] elements = new int[stateCount];
+		int[] position = new int[stateCount];
+		int[] blockOf = new int[stateCount];
+		int[] blockStart = new int[stateCount + 1];
+		int[] blockEnd = new int[stateCount + 1];
+		int[] marked = new int[stateCount + 1];
+		int finals = 0;
+		for (int state = 0; state < stateCount; state++) {
+			if (accepting[state]) {
+				elements[finals++] = state;
+			}
+		}
+		int others = finals;
+		for (int state = 0; state < stateCount; state++) {
+			if (!accepting[state]) {
+				elements[others++] = state;
+			}
+		}
+		int blocks = 0;
+		List<Integer> worklist = new ArrayList<>();
+		boolean[] inWorklist = new boolean[stateCount + 1];
+		if (finals > 0) {
+			blockStart[blocks] = 0;
+			blockEnd[blocks] = finals;
+			blocks++;
+		}
+		if (finals < stateCount) {
+			blockStart[blocks] = finals;
+			blockEnd[blocks] = stateCount;
+			blocks++;
+		}
+		for (int b = 0; b < blocks; b++) {
+			for (int i = blockStart[b]; i < blockEnd[b]; i++) {
+				blockOf[elements[i]] = b;
+				position[elements[i]] = i;
+			}
+			worklist.add(b);
+			inWorklist[b] = true;
+		}
+
+		int[] splitter = new int[stateCount];
+		int[] touched = new int[stateCount + 1];
+		while (!worklist.isEmpty()) {
+			int block = worklist.remove(worklist.size() - 1);
+			inWorklist[block] = false;
+			int splitterSize = blockEnd[block] - blockStart[block];
+			System.arraycopy(elements, blockStart[block], splitter, 0, splitterSize);
+
+			for (int symbol = 0; symbol < symbols; symbol++) {
+				// Mark the states that go into the splitter with this symbol.
+				int touchedCount = 0;
+				for (int k = 0; k < splitterSize; k++) {
+					int cell = splitter[k] * symbols + symbol;
+					for (int p = predecessorStart[cell]; p < predecessorStart[cell + 1]; p++) {
+						int state = predecessors[p];
+						int b = blockOf[state];
+						int firstUnmarked = blockStart[b] + marked[b];
+						if (position[state] < firstUnmarked) {
+							continue; // Already marked.
+						}
+						if (marked[b] == 0) {
+							touched[touchedCount++] = b;
+						}
+						int other = elements[firstUnmarked];
+						elements[firstUnmarked] = state;
+						elements[position[state]] = other;
+						position[other] = position[state];
+						position[state] = firstUnmarked;
+						marked[b]++;
+					}
+				}
+
+				// Split every block that is only partly marked.
+				for (int t = 0; t < touchedCount; t++) {
+					int b = touched[t];
+					int markedCount = marked[b];
+					marked[b] = 0;
+					if (markedCount == blockEnd[b] - blockStart[b]) {
+						continue;
+					}
+					int newBlock = blocks++;
+					blockStart[newBlock] = blockStart[b];
+					blockEnd[newBlock] = blockStart[b] + markedCount;
+					blockStart[b] = blockEnd[newBlock];
+					for (int i = blockStart[newBlock]; i < blockEnd[newBlock]; i++) {
+						blockOf[elements[i]] = newBlock;
+					}
+					if (inWorklist[b]) {
+						worklist.add(newBlock);
+						inWorklist[newBlock] = true;
+					} else {
+						int smaller = markedCount <= blockEnd[b] - blockStart[b] ? newBlock : b;
+						worklist.add(smaller);
+						inWorklist[smaller] = true;
+					}
+				}
+			}
+		}
+		return blockOf;
+	}
+
+	/*
+	 * Builds the automaton whose states are the blocks, leaving out the blocks from which no final state can be reached.
+	 */
+	private static FiniteAutomata buildQuotient(AutomatonIndex index, int[] reachable, int[] delta, boolean[] accepting,
+			int[] blockOf, int sink, int symbols) {
+		int blockCount = 0;
+		for (int block : blockOf) {
+			blockCount = Math.max(blockCount, block + 1);
+		}
+
+		// Live blocks: final blocks and those with a transition into a live block (backwards fixed point).
+		boolean[] live = new boolean[blockCount];
+		for (int state = 0; state < blockOf.length; state++) {
+			if (accepting[state]) {
+				live[blockOf[state]] = true;
+			}
+		}
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int state = 0; state < blockOf.length; state++) {
+				if (live[blockOf[state]]) {
+					continue;
+				}
+				for (int symbol = 0; symbol < symbols; symbol++) {
+					if (live[blockOf[delta[state * symbols + symbol]]]) {
+						live[blockOf[state]] = true;
+						changed = true;
+						break;
+					}
+				}
+			}
+		}
+
+		// Names of the blocks (states in order of reachability).
+		List<List<String>> members = new ArrayList<>();
+		for (int b = 0; b < blockCount; b++) {
+			members.add(new ArrayList<>());
+		}
+		for (int state = 0; state < sink; state++) {
+			members.get(blockOf[state]).add(index.getStateName(reachable[state]));
+		}
+		String[] names = new String[blockCount];
+		for (int b = 0; b < blockCount; b++) {
+			names[b] = members.get(b).size() == 1 ? members.get(b).get(0) : "{" + String.join(" ", members.get(b)) + "}";
+		}
+
+		List<String> alphabet = new ArrayList<>();
+		for (int symbol = 0; symbol < symbols; symbol++) {
+			alphabet.add(String.valueOf(index.getSymbol(symbol)));
+		}
+		int initialBlock = blockOf[0];
+		if (!live[initialBlock]) { // Empty language: a single non-final state.
+			List<String> states = new ArrayList<>();
+			states.add(names[initialBlock]);
+			return new FiniteAutomata(states, alphabet, new ArrayList<>(), new ArrayList<>(), names[initialBlock]);
+		}
+
+		List<String> states = new ArrayList<>();
+		List<String> finalStates = new ArrayList<>();
+		List<Transition> transitions = new ArrayList<>();
+		boolean[] emitted = new boolean[blockCount];
+		for (int state = 0; state < sink; state++) {
+			int block = blockOf[state];
+			if (!live[block] || emitted[block]) {
+				continue;
+			}
+			emitted[block] = true;
+			states.add(names[block]);
+			if (accepting[state]) {
+				finalStates.add(names[block]);
+			}
+			for (int symbol = 0; symbol < symbols; symbol++) {
+				int target = blockOf[delta[state * symbols + symbol]];
+				if (live[target]) {
+					List<String> end = new ArrayList<>();
+					end.add(names[target]);
+					transitions.add(new Transition(names[block], alphabet.get(symbol), end));
+				}
+			}
+		}
+		return new FiniteAutomata(states, alphabet, transitions, finalStates, names[initialBlock]);
+	}
+}
@@ -0,0 +1,350 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Marina Peláez Martínez
+ * Builds finite automata from regular expressions, so token classes can be written as a regex instead of an FA.in file.
+ * Supported syntax:
+ * - literal characters, and \c for a character c that is an operator (e.g. \* \( \\ \[)
+ * - character classes [abc] and ranges [a-z0-9_]
+ * - alternative r|s (an empty alternative matches the empty sequence), concatenation rs, grouping (r)
+ * - repetitions r* (zero or more), r+ (one or more) and r? (zero or one)
+ * The regex is parsed by recursive descent into a Thompson NFA (with ε-transitions); the ε-transitions are then removed,
+ * since FiniteAutomata has no ε, giving an NFA over the characters of the regex. Minimizer determinizes and minimizes it.
+ */
+public class RegexCompiler {
+	private static final int EPSILON = -1;
+
+	// ATTRIBUTES (Thompson NFA being built: edge e goes from edgeFrom[e] to edgeTo[e] reading edgeChar[e], or EPSILON):
+	private final String regex;
+	private int position;
+	private int stateCount;
+	private int[] edgeFrom = new int[16];
+	private int[] edgeChar = new int[16];
+	private int[] edgeTo = new int[16];
+	private int edgeCount;
+
+	private RegexCompiler(String regex) {
+		this.regex = regex;
+	}
+
+	/*
+	 * Returns an NFA without ε-transitions that accepts the sequences matched by the regex.
+	 * Throws IllegalArgumentException if the regex is not well formed.
+	 */
+	public static FiniteAutomata toAutomaton(String regex) {
+		RegexCompiler compiler = new RegexCompiler(regex);
+		int[] fragment = compiler.parseAlternative();
+		if (compiler.position < regex.length()) {
+			throw compiler.error("unexpected " + regex.charAt(compiler.position));
+		}
+		return compiler.removeEpsilon(fragment[0], fragment[1]);
+	}
+
+	/*
+	 * Returns the minimal DFA of the regex, with its states renamed q0, q1... (q0 is the initial state).
+	 */
+	public static FiniteAutomata toMinimalDFA(String regex) {
+		return rename(Minimizer.minimize(toAutomaton(regex)));
+	}
+
+	/*
+	 * Returns the compiled transition table of the minimal DFA of the regex.
+	 */
+	public static CompiledDFA compile(String regex) {
+		return toMinimalDFA(regex).compile();
+	}
+
+	// PARSER: every method returns the fragment it built as {start state, accepting state}.
+
+	/*
+	 * alternative := concatenation ('|' concatenation)*
+	 */
+	private int[] parseAlternative() {
+		int[] fragment = parseConcatenation();
+		while (position < regex.length() && regex.charAt(position) == '|') {
+			position++;
+			int[] other = parseConcatenation();
+			int start = newState();
+			int end = newState();
+			addEdge(start, EPSILON, fragment[0]);
+			addEdge(start, EPSILON, other[0]);
+			addEdge(fragment[1], EPSILON, end);
+			addEdge(other[1], EPSILON, end);
+			fragment = new int[] { start, end };
+		}
+		return fragment;
+	}
+
+	/*
+	 * concatenation := repetition*  (no repetition at all is the empty sequence)
+	 */
+	private int[] parseConcatenation() {
+		int start = newState();
+		int end = start;
+		while (position < regex.length() && regex.charAt(position) != '|' && regex.charAt(position) != ')') {
+			int[] next = parseRepetition();
+			addEdge(end, EPSILON, next[0]);
+			end = next[1];
+		}
+		return new int[] { start, end };
+	}
+
+	/*
+	 * repetition := atom ('*' | '+' | '?')*
+	 */
+	private int[] parseRepetition() {
+		int[] fragment = parseAtom();
+		while (position < regex.length()) {
+			char op = regex.charAt(position);
+			if (op != '*' && op != '+' && op != '?') {
+				break;
+			}
+			position++;
+			int start = newState();
+			int end = newState();
+			addEdge(start, EPSILON, fragment[0]);
+			addEdge(fragment[1], EPSILON, end);
+			if (op != '+') {
+				addEdge(start, EPSILON, end); // Zero times.
+			}
+			if (op != '?') {
+				addEdge(fragment[1], EPSILON, fragment[0]); // Once more.
+			}
+			fragment = new int[] { start, end };
+		}
+		return fragment;
+	}
+
+	/*
+	 * atom := '(' alternative ')' | '[' class ']' | '\' character | character
+	 */
+	private int[] parseAtom() {
+		char c = regex.charAt(position++);
+		switch (c) {
+		case '(':
+			int[] inner = parseAlternative();
+			expect(')');
+			return inner;
+		case '[':
+			return parseClass();
+		case '*':
+		case '+':
+		case '?':
+			throw error("nothing to repeat before " + c);
+		case ']':
+			throw error("unexpected ]");
+		case '\\':
+			return single(escaped());
+		default:
+			return single(c);
+		}
+	}
+
+	/*
+	 * class := (character | character '-' character)+ ']'  (the opening [ was already read)
+	 */
+	private int[] parseClass() {
+		boolean[] chars = new boolean[Character.MAX_VALUE + 1];
+		boolean empty = true;
+		while (position < regex.length() && regex.charAt(position) != ']') {
+			char from = classChar();
+			char to = from;
+			if (position + 1 < regex.length() && regex.charAt(position) == '-' && regex.charAt(position + 1) != ']') {
+				position++;
+				to = classChar();
+				if (to < from) {
+					throw error("invalid range " + from + "-" + to);
+				}
+			}
+			for (int k = from; k <= to; k++) {
+				chars[k] = true;
+			}
+			empty = false;
+		}
+		expect(']');
+		if (empty) {
+			throw error("empty character class");
+		}
+		int start = newState();
+		int end = newState();
+		for (int k = 0; k < chars.length; k++) {
+			if (chars[k]) {
+				addEdge(start, k, end);
+			}
+		}
+		return new int[] { start, end };
+	}
+
+	private char classChar() {
+		char c = regex.charAt(position++);
+		return c == '\\' ? escaped() : c;
+	}
+
+	private char escaped() {
+		if (position >= regex.length()) {
+			throw error("\\ at the end of the regex");
+		}
+		return regex.charAt(position++);
+	}
+
+	private void expect(char c) {
+		if (position >= regex.length() || regex.charAt(position) != c) {
+			throw error("expected " + c);
+		}
+		position++;
+	}
+
+	private int[] single(char c) {
+		int start = newState();
+		int end = newState();
+		addEdge(start, c, end);
+		return new int[] { start, end };
+	}
+
+	private int newState() {
+		return stateCount++;
+	}
+
+	private void addEdge(int from, int c, int to) {
+		if (edgeCount == edgeFrom.length) {
+			edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+			edgeChar = Arrays.copyOf(edgeChar, edgeCount * 2);
+			edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+		}
+		edgeFrom[edgeCount] = from;
+		edgeChar[edgeCount] = c;
+		edgeTo[edgeCount] = to;
+		edgeCount++;
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException("Regex " + regex + ", position " + position + ": " + message);
+	}
+
+	// ε-REMOVAL:
+
+	/*
+	 * The states kept are the initial state and the targets of character edges. A kept state s reads c into u when some state
+	 * of its ε-closure has an edge c to u, and it is final when its ε-closure contains the accepting state.
+	 */
+	private FiniteAutomata removeEpsilon(int initial, int accepting) {
+		// Edges grouped by source state.
+		int[] edgeStart = new int[stateCount + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			edgeStart[edgeFrom[e] + 1]++;
+		}
+		for (int s = 0; s < stateCount; s++) {
+			edgeStart[s + 1] += edgeStart[s];
+		}
+		int[] edges = new int[edgeCount];
+		int[] fill = Arrays.copyOf(edgeStart, stateCount);
+		for (int e = 0; e < edgeCount; e++) {
+			edges[fill[edgeFrom[e]]++] = e;
+		}
+
+		boolean[] kept = new boolean[stateCount];
+		kept[initial] = true;
+		for (int e = 0; e < edgeCount; e++) {
+			if (edgeChar[e] != EPSILON) {
+				kept[edgeTo[e]] = true;
+			}
+		}
+		String[] names = new String[stateCount];
+		List<String> states = new ArrayList<>();
+		for (int s = 0; s < stateCount; s++) {
+			if (kept[s]) {
+				names[s] = "q" + states.size();
+				states.add(names[s]);
+			}
+		}
+
+		List<String> alphabet = new ArrayList<>();
+		Map<Character, String> symbols = new HashMap<>();
+		List<String> finalStates = new ArrayList<>();
+		List<Transition> transitions = new ArrayList<>();
+		int[] stack = new int[stateCount];
+		int[] visited = new int[stateCount];
+		Arrays.fill(visited, -1);
+		for (int s = 0; s < stateCount; s++) {
+			if (!kept[s]) {
+				continue;
+			}
+			Map<Character, List<String>> targets = new LinkedHashMap<>();
+			boolean isFinal = false;
+			int size = 0;
+			stack[size++] = s;
+			visited[s] = s;
+			while (size > 0) {
+				int t = stack[--size];
+				if (t == accepting) {
+					isFinal = true;
+				}
+				for (int k = edgeStart[t]; k < edgeStart[t + 1]; k++) {
+					int e = edges[k];
+					int to = edgeTo[e];
+					if (edgeChar[e] == EPSILON) {
+						if (visited[to] != s) {
+							visited[to] = s;
+							stack[size++] = to;
+						}
+					} else {
+						List<String> end = targets.computeIfAbsent((char) edgeChar[e], key -> new ArrayList<>());
+						if (!end.contains(names[to])) {
+							end.add(names[to]);
+						}
+					}
+				}
+			}
+			if (isFinal) {
+				finalStates.add(names[s]);
+			}
+			for (Map.Entry<Character, List<String>> entry : targets.entrySet()) {
+				String symbol = symbols.get(entry.getKey());
+				if (symbol == null) {
+					symbol = String.valueOf(entry.getKey());
+					symbols.put(entry.getKey(), symbol);
+					alphabet.add(symbol);
+				}
+				transitions.add(new Transition(names[s], symbol, entry.getValue()));
+			}
+		}
+		return new FiniteAutomata(states, alphabet, transitions, finalStates, names[initial]);
+	}
+
+	/*
+	 * Renames the states of an automaton to q0, q1... in order of the states list, keeping the initial state first.
+	 */
+	private static FiniteAutomata rename(FiniteAutomata automaton) {
+		Map<String, String> names = new HashMap<>();
+		List<String> states = new ArrayList<>();
+		names.put(automaton.getInitialState(), "q0");
+		states.add("q0");
+		for (String state : automaton.getStatesList()) {
+			if (!names.containsKey(state)) {
+				String name = "q" + states.size();
+				names.put(state, name);
+				states.add(name);
+			}
+		}
+		List<String> finalStates = new ArrayList<>();
+		for (String state : automaton.getFinalStates()) {
+			finalStates.add(names.get(state));
+		}
+		List<Transition> transitions = new ArrayList<>();
+		for (Transition tran : automaton.getTransitionsList()) {
+			List<String> end = new ArrayList<>();
+			for (String state : tran.getEndState()) {
+				end.add(names.get(state));
+			}
+			transitions.add(new Transition(names.get(tran.getStartState()), tran.getValue(), end));
+		}
+		return new FiniteAutomata(states, automaton.getAlphabet(), transitions, finalStates, "q0");
+	}
+}
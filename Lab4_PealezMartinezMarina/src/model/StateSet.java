@@ -0,0 +1,32 @@
+package model;
+
+import java.util.Arrays;
+
+/*
+ * Marina Peláez Martínez
+ * A set of NFA states (bitset) usable as a hash key, e.g. to identify the DFA state that represents it in the subset construction.
+ * The bitset must not be modified once it is wrapped.
+ */
+final class StateSet {
+	private final long[] bits;
+	private final int hash;
+
+	StateSet(long[] bits) {
+		this.bits = bits;
+		this.hash = Arrays.hashCode(bits);
+	}
+
+	long[] getBits() {
+		return bits;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof StateSet && Arrays.equals(bits, ((StateSet) o).bits);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
@@ -20,6 +20,15 @@ public class Transition {
 	public Transition() {
     }
 
+    /*
+     * Constructor with all the information of the transition.
+     */
+    public Transition(String startState, String value, List<String> endState) {
+        this.sourceState = startState;
+        this.value = value;
+        this.destinationState = endState;
+    }
+
     // SETTERS:
     public void setStartState(String startState) {
         this.sourceState = startState;
@@ -1,8 +1,14 @@
 
+import domain.BatchParser;
+import domain.CompiledParseTable;
 import domain.Grammar;
+import domain.ParseContext;
+import domain.ParseTableCache;
 import domain.Parser;
+import domain.TokenReader;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -23,10 +29,12 @@ public class Main {
         // Sequence for G1
         String g1SeqFilename = "src\\input\\seq.txt";
         
-        Grammar grammar = new Grammar(fileName);
-        grammar.readFromFile();
-        Parser parser = new Parser(grammar);
-        parser.generateSets();
+        // compiled table for options 10 and 11, read from the binary cache unless g1.txt changed
+        CompiledParseTable compiledTable = new ParseTableCache().load(fileName);
+
+        // the grammar and its First/Follow sets are only built when an option that uses them (1-9) is chosen
+        Grammar grammar = null;
+        Parser parser = null;
 
         while (true) {
             display_menu();
@@ -35,6 +43,13 @@ public class Main {
             System.out.println("Enter command: ");
             command = reader.readLine();
 
+            if (parser == null && command != null && command.matches("[1-9]")) {
+                grammar = new Grammar(fileName);
+                grammar.readFromFile();
+                parser = new Parser(grammar);
+                parser.generateSets();
+            }
+
             switch (command) {
                 case "1":
                     System.out.println("Non-terminals: ");
@@ -79,6 +94,18 @@ public class Main {
                     List<String> sequence = readSequence(g1SeqFilename);
                     System.out.println(parser.parseSequence(sequence));
                     break;
+                case "10":
+                    // the sequence file is streamed token by token instead of being loaded in a list
+                    try (Reader sequenceReader = new FileReader(g1SeqFilename)) {
+                        System.out.println(compiledTable.parse(new TokenReader(sequenceReader), new ParseContext()));
+                    }
+                    break;
+                case "11":
+                    System.out.println("Enter directory: ");
+                    String directory = reader.readLine();
+                    BatchParser batchParser = new BatchParser(compiledTable);
+                    batchParser.parseDirectory(Paths.get(directory)).forEach((file, accepted) -> System.out.println(file.getFileName() + ": " + accepted));
+                    break;
                 case "0":
                     System.exit(0);
                 default:
@@ -98,6 +125,8 @@ public class Main {
         System.out.println("7 - Follow set");
         System.out.println("8 - Parsing table");
         System.out.println("9 - Parse sequence G1");
+        System.out.println("10 - Parse sequence G1 (compiled table)");
+        System.out.println("11 - Parse every sequence file of a directory");
         System.out.println("0 - Exit \n");
     }
 
@@ -0,0 +1,87 @@
+
+import domain.Grammar;
+import domain.Parser;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Microbenchmark of the two backends of Parser.parseSequence on a long token sequence:
+ * - MAP: the ParserOutput map, with String stacks and a new Pair key per lookup.
+ * - COMPILED: the CompiledParseTable, with int stacks and the buffers of the parser's ParseContext, reused from one parse to the next.
+ * The grammar is S -> a L, L -> b E L | z, E -> c | d and the sequence is "a b c b d ... z" with the given number of tokens.
+ * For each backend it prints the time and the bytes allocated per token (by the current thread, as reported by the JVM).
+ * After the first parse the COMPILED backend should allocate nothing. The first rounds are only warm-up for the JIT.
+ * Usage: java ParseBackendBenchmark [tokens]
+ */
+
+public class ParseBackendBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int tokens = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Path grammarFile = Files.createTempFile("grammar", ".txt");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(grammarFile))) {
+            out.println("SET OF NON-TERMINALS");
+            out.println("S,L,E");
+            out.println("SET OF TERMINALS");
+            out.println("a,b,c,d,z");
+            out.println("PRODUCTIONS");
+            out.println("S -> a L");
+            out.println("L -> b E L | z");
+            out.println("E -> c | d");
+            out.println("STARTING SYMBOL");
+            out.println("S");
+        }
+        Grammar grammar = new Grammar(grammarFile.toString());
+        grammar.readFromFile();
+        Files.delete(grammarFile);
+        Parser parser = new Parser(grammar);
+        parser.generateSets();
+        parser.createParseTable();
+
+        List<String> sequence = new ArrayList<>(tokens);
+        sequence.add("a");
+        while (sequence.size() + 2 < tokens) {
+            sequence.add("b");
+            sequence.add(sequence.size() % 4 == 2 ? "c" : "d");
+        }
+        sequence.add("z");
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        System.out.printf("%d tokens%n", sequence.size());
+        for (int round = 0; round < 8; round++) {
+            boolean warmUp = round < 3;
+            boolean accepted = true;
+
+            parser.setBackend(Parser.Backend.MAP);
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            accepted &= parser.parseSequence(sequence);
+            long mapTime = System.nanoTime() - start;
+            long mapBytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+            parser.setBackend(Parser.Backend.COMPILED);
+            bytes = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            accepted &= parser.parseSequence(sequence);
+            long compiledTime = System.nanoTime() - start;
+            long compiledBytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+            if (!warmUp) {
+                System.out.printf("MAP:      %6.1f ns/token, %6.2f bytes/token%n",
+                        (double) mapTime / sequence.size(), (double) mapBytes / sequence.size());
+                System.out.printf("COMPILED: %6.1f ns/token, %6.2f bytes/token   [%s]%n",
+                        (double) compiledTime / sequence.size(), (double) compiledBytes / sequence.size(), accepted ? "accepted" : "REJECTED");
+            }
+        }
+    }
+}
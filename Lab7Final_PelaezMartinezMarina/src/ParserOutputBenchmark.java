@@ -0,0 +1,136 @@
+
+import domain.Grammar;
+import domain.Pair;
+import domain.Parser;
+import domain.ParserOutput;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Microbenchmark of the ParserOutput lookups, before and after Pair got equals/hashCode:
+ * - before: the original get(), which walked the whole entry set comparing keys and values (O(table size) per lookup).
+ * - after: ParserOutput.get(), a single hashed access.
+ * The grammar is generated with k non-terminals and 3 rules each (Ni -> ai N(i+1) | bi N(i+1) | ci N(i+1)), so the table has about 6k entries.
+ * The lookups are the ones parseSequence makes on "a0 a1 ... a(k-1)": M[Ni, ai], M[ai, ai] and finally M[$, $],
+ * each with a new Pair key, as in the parse loop. The first rounds are only warm-up for the JIT.
+ * Usage: java ParserOutputBenchmark [non-terminals]
+ */
+
+public class ParserOutputBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        Path grammarFile = Files.createTempFile("grammar", ".txt");
+        writeGrammar(grammarFile, k);
+        Grammar grammar = new Grammar(grammarFile.toString());
+        grammar.readFromFile();
+        Files.delete(grammarFile);
+        Parser parser = new Parser(grammar);
+        parser.generateSets();
+        parser.createParseTable();
+        ParserOutput table = parser.getParserOutput();
+
+        // Same entries in a plain map, for the original lookup.
+        List<String> columns = new ArrayList<>(grammar.getSetOfTerminals());
+        columns.add("$");
+        Map<Pair<String, String>, Pair<List<String>, Integer>> entries = new HashMap<>();
+        List<String> rows = new ArrayList<>(grammar.getSetOfNonTerminals());
+        rows.addAll(columns);
+        for (String row : rows)
+            for (String column : columns) {
+                Pair<String, String> key = new Pair<>(row, column);
+                if (table.containsKey(key))
+                    entries.put(key, table.get(key));
+            }
+
+        String[] heads = new String[2 * k + 1];
+        String[] lookaheads = new String[2 * k + 1];
+        for (int i = 0; i < k; i++) {
+            heads[2 * i] = "N" + i;
+            lookaheads[2 * i] = "a" + i;
+            heads[2 * i + 1] = "a" + i;
+            lookaheads[2 * i + 1] = "a" + i;
+        }
+        heads[2 * k] = "$";
+        lookaheads[2 * k] = "$";
+
+        System.out.printf("%d productions, %d table entries, %d lookups per parse%n", 3 * k, entries.size(), heads.length);
+        int scanParses = Math.max(1, 2_000_000 / (entries.size() * heads.length));
+        int hashedParses = 20_000;
+        for (int round = 0; round < 8; round++) {
+            boolean warmUp = round < 3;
+            long checksum = 0;
+
+            long start = System.nanoTime();
+            for (int parse = 0; parse < scanParses; parse++)
+                for (int i = 0; i < heads.length; i++)
+                    checksum += scanGet(entries, new Pair<>(heads[i], lookaheads[i])).getValue();
+            long scan = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int parse = 0; parse < hashedParses; parse++)
+                for (int i = 0; i < heads.length; i++)
+                    checksum += table.get(new Pair<>(heads[i], lookaheads[i])).getValue();
+            long hashed = System.nanoTime() - start;
+
+            if (!warmUp) {
+                double scanPerLookup = (double) scan / ((long) scanParses * heads.length);
+                double hashedPerLookup = (double) hashed / ((long) hashedParses * heads.length);
+                System.out.printf("entry-set scan: %9.1f ns/lookup   hashed: %6.1f ns/lookup   speedup x%.0f   [%d]%n",
+                        scanPerLookup, hashedPerLookup, scanPerLookup / hashedPerLookup, checksum & 1);
+            }
+        }
+    }
+
+    /*
+     * ParserOutput.get() as it was before Pair had equals/hashCode.
+     */
+    private static Pair<List<String>, Integer> scanGet(Map<Pair<String, String>, Pair<List<String>, Integer>> table, Pair<String, String> key) {
+        for (Map.Entry<Pair<String, String>, Pair<List<String>, Integer>> entry : table.entrySet()) {
+            if (entry.getValue() != null) {
+                Pair<String, String> currentKey = entry.getKey();
+                Pair<List<String>, Integer> currentValue = entry.getValue();
+
+                if (currentKey.getKey().equals(key.getKey()) && currentKey.getValue().equals(key.getValue())) {
+                    return currentValue;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static void writeGrammar(Path file, int k) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            List<String> nonTerminals = new ArrayList<>();
+            List<String> terminals = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                nonTerminals.add("N" + i);
+                terminals.add("a" + i);
+                terminals.add("b" + i);
+                terminals.add("c" + i);
+            }
+            out.println("SET OF NON-TERMINALS");
+            out.println(String.join(",", nonTerminals));
+            out.println("SET OF TERMINALS");
+            out.println(String.join(",", terminals));
+            out.println("PRODUCTIONS");
+            for (int i = 0; i < k; i++) {
+                String next = i + 1 < k ? " N" + (i + 1) : "";
+                out.println("N" + i + " -> a" + i + next + " | b" + i + next + " | c" + i + next);
+            }
+            out.println("STARTING SYMBOL");
+            out.println("N0");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package domain;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class BatchParser --> parses many sequences against one CompiledParseTable in parallel on a ForkJoinPool.
+ * The table is never modified after it is built, so it is shared by every worker; each worker thread keeps its own ParseContext.
+ * Results are returned in the same order as the input.
+ */
+
+public class BatchParser {
+
+    private final CompiledParseTable table;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<ParseContext> contexts = ThreadLocal.withInitial(ParseContext::new);
+
+    public BatchParser(CompiledParseTable table) {
+        this(table, ForkJoinPool.commonPool());
+    }
+
+    public BatchParser(CompiledParseTable table, ForkJoinPool pool) {
+        this.table = table;
+        this.pool = pool;
+    }
+
+    /*
+     * Parses every sequence; result[i] tells whether sequences.get(i) is accepted.
+     */
+    public boolean[] parseAll(List<List<String>> sequences) {
+        Boolean[] accepted = run(() -> IntStream.range(0, sequences.size()).parallel()
+                .mapToObj(i -> table.parse(sequences.get(i), contexts.get()))
+                .toArray(Boolean[]::new));
+        boolean[] result = new boolean[accepted.length];
+        for (int i = 0; i < accepted.length; i++)
+            result[i] = accepted[i];
+        return result;
+    }
+
+    /*
+     * Parses every regular file of the directory (sorted by name) as a whitespace-separated token stream.
+     * Files are streamed, so their size does not matter; the map keeps the order of the files.
+     */
+    public Map<Path, Boolean> parseDirectory(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        List<Boolean> accepted = run(() -> files.parallelStream().map(this::parseFile).collect(Collectors.toList()));
+
+        Map<Path, Boolean> result = new LinkedHashMap<>();
+        for (int i = 0; i < files.size(); i++)
+            result.put(files.get(i), accepted.get(i));
+        return result;
+    }
+
+    private boolean parseFile(Path file) {
+        ParseContext context = contexts.get();
+        boolean record = context.isRecordDerivation();
+        context.setRecordDerivation(false);
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return table.parse(new TokenReader(reader), context);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            context.setRecordDerivation(record);
+        }
+    }
+
+    /*
+     * Runs the parallel stream inside the pool, so its tasks use the pool's workers instead of the common pool.
+     */
+    private <T> T run(Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
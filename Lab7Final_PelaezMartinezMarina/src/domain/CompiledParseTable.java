@@ -0,0 +1,208 @@
+package domain;
+
+import java.util.*;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class CompiledParseTable --> dense LL(1) parsing table compiled from a Grammar and its First/Follow sets.
+ * Rows are non-terminal ids, columns are terminal ids ("$" is the last column) and every cell holds a production number (0 = error).
+ * Parsing runs on int stacks, so no strings are compared once the input has been encoded.
+ * The table is immutable once built and all parse state lives in a ParseContext, so one instance can be shared by many threads
+ * (one context per thread).
+ */
+
+public class CompiledParseTable {
+
+    private final SymbolInterner symbols;
+    private final int endMarker;
+    private final int nonTerminalBase;
+    private final int startSymbol;
+    private final int[][] table;
+    private final int[][] productionBodies;
+
+    /*
+     * Uses the symbol ids interned by the Grammar: terminals are 0..T-1, "$" is T and non-terminals start at T+1.
+     * Production bodies are stored reversed, so applying a production is a plain copy onto the stack.
+     */
+    public CompiledParseTable(Grammar grammar, FirstFollow sets) {
+        this.symbols = grammar.getSymbols();
+        this.endMarker = grammar.getEndMarkerId();
+        this.nonTerminalBase = grammar.getNonTerminalBase();
+        this.startSymbol = grammar.getStartingSymbolId();
+
+        this.table = new int[symbols.size() - nonTerminalBase][endMarker + 1];
+        this.productionBodies = new int[grammar.getRuleCount() + 1][];
+        this.productionBodies[0] = new int[0];
+        for (int number = 1; number <= grammar.getRuleCount(); number++) {
+            productionBodies[number] = reversed(grammar.getRuleBody(number));
+
+            int[] row = table[grammar.getRuleHead(number) - nonTerminalBase];
+            BitSet predict = sets.getPredict(number);
+            for (int column = predict.nextSetBit(0); column >= 0; column = predict.nextSetBit(column + 1))
+                if (row[column] == 0)
+                    row[column] = number;
+        }
+    }
+
+    /*
+     * Rebuilds a table from its parts, as stored by the ParseTableCache.
+     */
+    CompiledParseTable(SymbolInterner symbols, int endMarker, int nonTerminalBase, int startSymbol, int[][] table, int[][] productionBodies) {
+        this.symbols = symbols;
+        this.endMarker = endMarker;
+        this.nonTerminalBase = nonTerminalBase;
+        this.startSymbol = startSymbol;
+        this.table = table;
+        this.productionBodies = productionBodies;
+    }
+
+    /*
+     * Computes the First/Follow sets of the grammar and compiles its table.
+     */
+    public static CompiledParseTable compile(Grammar grammar) {
+        return new CompiledParseTable(grammar, new FirstFollow(grammar));
+    }
+
+    private static int[] reversed(int[] body) {
+        int[] reversed = new int[body.length];
+        for (int i = 0; i < body.length; i++)
+            reversed[body.length - 1 - i] = body[i];
+        return reversed;
+    }
+
+    /*
+     * Parses a sequence of terminals and returns the production numbers applied (the derivation), or null if the sequence is rejected.
+     */
+    public int[] parse(List<String> sequence) {
+        ParseContext context = new ParseContext();
+        return parse(sequence, context) ? context.getDerivation() : null;
+    }
+
+    /*
+     * Parses a sequence of terminals reusing the buffers of the context; the derivation is left in the context.
+     */
+    public boolean parse(List<String> sequence, ParseContext context) {
+        int length = sequence.size();
+        context.ensureInput(length + 1);
+        int[] input = context.input;
+        for (int i = 0; i < length; i++) {
+            int terminal = symbols.idOf(sequence.get(i));
+            if (terminal < 0 || terminal >= endMarker) {
+                context.steps = 0;
+                return false;
+            }
+            input[i] = terminal;
+        }
+        input[length] = endMarker;
+        context.inputLength = length + 1;
+        return run(context, null);
+    }
+
+    /*
+     * Parses the tokens as they are pulled from the iterator, with a single token of lookahead.
+     * The input is never stored, so memory only depends on the stack depth (and on the derivation, unless the
+     * context has derivation recording disabled).
+     */
+    public boolean parse(Iterator<String> tokens, ParseContext context) {
+        return run(context, tokens);
+    }
+
+    /*
+     * The parse loop: the top of the stack is matched against the lookahead (terminal) or expanded with the
+     * production found in the table (non-terminal). Nothing is allocated unless a buffer has to grow.
+     * The lookahead comes from the encoded input of the context, or from the iterator when one is given.
+     */
+    boolean run(ParseContext context, Iterator<String> tokens) {
+        int[] input = context.input;
+        int[] stack = context.stack;
+        int top = 0;
+        stack[top] = endMarker;
+        stack[++top] = startSymbol;
+        context.steps = 0;
+        int position = 0;
+        int lookahead = tokens == null ? input[0] : nextTerminal(tokens);
+
+        while (true) {
+            if (lookahead < 0)
+                return false;
+            int symbol = stack[top];
+            if (symbol == endMarker)
+                return lookahead == endMarker;
+
+            if (symbol < nonTerminalBase) {
+                if (symbol != lookahead)
+                    return false;
+                top--;
+                lookahead = tokens == null ? input[++position] : nextTerminal(tokens);
+            } else {
+                int number = table[symbol - nonTerminalBase][lookahead];
+                if (number == 0)
+                    return false;
+                int[] body = productionBodies[number];
+                if (top + body.length > stack.length) {
+                    context.ensureStack(top + body.length);
+                    stack = context.stack;
+                }
+                System.arraycopy(body, 0, stack, top, body.length);
+                top += body.length - 1;
+                context.addStep(number);
+            }
+        }
+    }
+
+    /*
+     * Id of the next token, "$" once the iterator is exhausted, or -1 if the token is not a terminal of the grammar.
+     */
+    private int nextTerminal(Iterator<String> tokens) {
+        if (!tokens.hasNext())
+            return endMarker;
+        int terminal = symbols.idOf(tokens.next());
+        return terminal < endMarker ? terminal : -1;
+    }
+
+    // GETTERS (used by the ParseTableCache):
+
+    SymbolInterner getSymbols() {
+        return symbols;
+    }
+
+    int getEndMarker() {
+        return endMarker;
+    }
+
+    int getNonTerminalBase() {
+        return nonTerminalBase;
+    }
+
+    int getStartSymbol() {
+        return startSymbol;
+    }
+
+    int[][] getTable() {
+        return table;
+    }
+
+    int[][] getProductionBodies() {
+        return productionBodies;
+    }
+
+    public int getProductionNumber(String nonTerminal, String terminal) {
+        int row = symbols.idOf(nonTerminal) - nonTerminalBase;
+        int column = symbols.idOf(terminal);
+        if (row < 0 || column < 0 || column > endMarker)
+            return 0;
+        return table[row][column];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < table.length; row++)
+            for (int column = 0; column <= endMarker; column++)
+                if (table[row][column] != 0)
+                    sb.append("M[").append(symbols.symbolOf(nonTerminalBase + row)).append(",").append(symbols.symbolOf(column)).append("] = ")
+                            .append(table[row][column]).append("\n");
+        return sb.toString();
+    }
+}
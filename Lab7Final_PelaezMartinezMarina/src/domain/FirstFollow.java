@@ -0,0 +1,236 @@
+package domain;
+
+import java.util.*;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class FirstFollow --> computes the nullable non-terminals and the First and Follow sets of a Grammar as a fixed point.
+ * Every set is a BitSet indexed by terminal id ("$" is bit T), so unions are word operations.
+ * Each step only revisits the non-terminals whose sets depend on one that just changed (worklist), so no recursion is needed.
+ */
+
+public class FirstFollow {
+
+    private final Grammar grammar;
+    private final int endMarker;
+    private final int nonTerminalBase;
+    private final boolean[] nullable;
+    private final BitSet[] first;
+    private final BitSet[] follow;
+
+    public FirstFollow(Grammar grammar) {
+        this.grammar = grammar;
+        this.endMarker = grammar.getEndMarkerId();
+        this.nonTerminalBase = grammar.getNonTerminalBase();
+        int nonTerminals = grammar.getSymbols().size() - nonTerminalBase;
+        this.nullable = new boolean[nonTerminals];
+        this.first = new BitSet[nonTerminals];
+        this.follow = new BitSet[nonTerminals];
+        for (int i = 0; i < nonTerminals; i++) {
+            first[i] = new BitSet(endMarker + 1);
+            follow[i] = new BitSet(endMarker + 1);
+        }
+        computeNullable();
+        computeFirst();
+        computeFollow();
+    }
+
+    /*
+     * A rule is nullable once all of its symbols are; each rule keeps a counter of the symbols not yet known to be nullable.
+     */
+    private void computeNullable() {
+        int rules = grammar.getRuleCount();
+        int[] remaining = new int[rules + 1];
+        List<List<Integer>> occurrences = emptyLists();
+        Deque<Integer> worklist = new ArrayDeque<>();
+
+        for (int number = 1; number <= rules; number++) {
+            int[] body = grammar.getRuleBody(number);
+            boolean hasTerminal = false;
+            for (int symbol : body) {
+                if (grammar.isNonTerminal(symbol))
+                    occurrences.get(symbol - nonTerminalBase).add(number);
+                else
+                    hasTerminal = true;
+            }
+            remaining[number] = hasTerminal ? -1 : body.length;
+            if (remaining[number] == 0)
+                markNullable(grammar.getRuleHead(number), worklist);
+        }
+
+        while (!worklist.isEmpty()) {
+            int nonTerminal = worklist.poll();
+            for (int number : occurrences.get(nonTerminal)) {
+                if (remaining[number] > 0 && --remaining[number] == 0)
+                    markNullable(grammar.getRuleHead(number), worklist);
+            }
+        }
+    }
+
+    private void markNullable(int head, Deque<Integer> worklist) {
+        int index = head - nonTerminalBase;
+        if (!nullable[index]) {
+            nullable[index] = true;
+            worklist.add(index);
+        }
+    }
+
+    /*
+     * For A -> X1..Xn, every Xk reachable through a nullable prefix contributes: a terminal is added directly,
+     * a non-terminal adds the edge Xk -> A (FIRST(A) includes FIRST(Xk)), which is then propagated to a fixed point.
+     */
+    private void computeFirst() {
+        List<List<Integer>> dependents = emptyLists();
+        for (int number = 1; number <= grammar.getRuleCount(); number++) {
+            int head = grammar.getRuleHead(number) - nonTerminalBase;
+            for (int symbol : grammar.getRuleBody(number)) {
+                if (!grammar.isNonTerminal(symbol)) {
+                    if (symbol >= 0)
+                        first[head].set(symbol);
+                    break;
+                }
+                dependents.get(symbol - nonTerminalBase).add(head);
+                if (!nullable[symbol - nonTerminalBase])
+                    break;
+            }
+        }
+        propagate(first, dependents);
+    }
+
+    /*
+     * Rules are walked right to left keeping the First set of the suffix (trailer); a non-terminal at the end of a nullable
+     * suffix adds the edge A -> Xi (FOLLOW(Xi) includes FOLLOW(A)), which is then propagated to a fixed point.
+     */
+    private void computeFollow() {
+        List<List<Integer>> dependents = emptyLists();
+        int start = grammar.getStartingSymbolId();
+        if (grammar.isNonTerminal(start))
+            follow[start - nonTerminalBase].set(endMarker);
+
+        for (int number = 1; number <= grammar.getRuleCount(); number++) {
+            int head = grammar.getRuleHead(number) - nonTerminalBase;
+            int[] body = grammar.getRuleBody(number);
+            BitSet trailer = new BitSet(endMarker + 1);
+            boolean reachesEnd = true;
+            for (int i = body.length - 1; i >= 0; i--) {
+                int symbol = body[i];
+                if (!grammar.isNonTerminal(symbol)) {
+                    trailer.clear();
+                    if (symbol >= 0)
+                        trailer.set(symbol);
+                    reachesEnd = false;
+                    continue;
+                }
+                int index = symbol - nonTerminalBase;
+                follow[index].or(trailer);
+                if (reachesEnd)
+                    dependents.get(head).add(index);
+                if (!nullable[index]) {
+                    trailer.clear();
+                    reachesEnd = false;
+                }
+                trailer.or(first[index]);
+            }
+        }
+        propagate(follow, dependents);
+    }
+
+    /*
+     * Worklist fixed point: sets[d] includes sets[s] for every edge s -> d in dependents.
+     */
+    private void propagate(BitSet[] sets, List<List<Integer>> dependents) {
+        Deque<Integer> worklist = new ArrayDeque<>();
+        boolean[] queued = new boolean[sets.length];
+        for (int i = 0; i < sets.length; i++) {
+            worklist.add(i);
+            queued[i] = true;
+        }
+        BitSet added = new BitSet(endMarker + 1);
+        while (!worklist.isEmpty()) {
+            int source = worklist.poll();
+            queued[source] = false;
+            for (int target : dependents.get(source)) {
+                added.clear();
+                added.or(sets[source]);
+                added.andNot(sets[target]);
+                if (!added.isEmpty()) {
+                    sets[target].or(added);
+                    if (!queued[target]) {
+                        queued[target] = true;
+                        worklist.add(target);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<List<Integer>> emptyLists() {
+        List<List<Integer>> lists = new ArrayList<>(first.length);
+        for (int i = 0; i < first.length; i++)
+            lists.add(new ArrayList<>());
+        return lists;
+    }
+
+    // GETTERS (by non-terminal id):
+
+    public boolean isNullable(int nonTerminalId) {
+        return nullable[nonTerminalId - nonTerminalBase];
+    }
+
+    public BitSet getFirst(int nonTerminalId) {
+        return first[nonTerminalId - nonTerminalBase];
+    }
+
+    public BitSet getFollow(int nonTerminalId) {
+        return follow[nonTerminalId - nonTerminalBase];
+    }
+
+    /*
+     * Predict set of a rule A -> α: FIRST(α), plus FOLLOW(A) when α can derive ε. These are the columns where the rule goes in the table.
+     */
+    public BitSet getPredict(int ruleNumber) {
+        BitSet predict = new BitSet(endMarker + 1);
+        for (int symbol : grammar.getRuleBody(ruleNumber)) {
+            if (!grammar.isNonTerminal(symbol)) {
+                if (symbol >= 0)
+                    predict.set(symbol);
+                return predict;
+            }
+            predict.or(first[symbol - nonTerminalBase]);
+            if (!nullable[symbol - nonTerminalBase])
+                return predict;
+        }
+        predict.or(getFollow(grammar.getRuleHead(ruleNumber)));
+        return predict;
+    }
+
+    /*
+     * String views keyed by non-terminal, in the format returned by Parser.getFirstSet (nullable non-terminals contain "ε")
+     * and Parser.getFollowSet.
+     */
+    public Map<String, Set<String>> firstSetView() {
+        Map<String, Set<String>> view = new HashMap<>();
+        for (int i = 0; i < first.length; i++) {
+            Set<String> terminals = toSymbols(first[i]);
+            if (nullable[i])
+                terminals.add("ε");
+            view.put(grammar.getSymbols().symbolOf(nonTerminalBase + i), terminals);
+        }
+        return view;
+    }
+
+    public Map<String, Set<String>> followSetView() {
+        Map<String, Set<String>> view = new HashMap<>();
+        for (int i = 0; i < follow.length; i++)
+            view.put(grammar.getSymbols().symbolOf(nonTerminalBase + i), toSymbols(follow[i]));
+        return view;
+    }
+
+    private Set<String> toSymbols(BitSet set) {
+        Set<String> symbols = new HashSet<>();
+        for (int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1))
+            symbols.add(grammar.getSymbols().symbolOf(id));
+        return symbols;
+    }
+}
@@ -17,6 +17,11 @@ public class Grammar {
     private List<Production> setOfProductions;
     private String startingSymbol;
     private String fileName;
+    private SymbolInterner symbols;
+    private int[] ruleHeads;
+    private int[][] ruleBodies;
+    private int[][] rulesForNonTerminal;
+    private Map<String, List<Production>> productionsByStart = new HashMap<>();
 
     /*
      * Constructor -->  takes a filename as an argument and initializes the instance variables.
@@ -77,6 +82,47 @@ public class Grammar {
         this.startingSymbol = scanner.nextLine();
 
         scanner.close();
+
+        internSymbols();
+    }
+
+    /*
+     * Assigns the int ids used by the int-based API: terminals get 0..T-1, "$" gets T and non-terminals get T+1 onwards.
+     * Every rule is numbered (1, 2, ... in file order, the same numbering used by the parse table) and its body is encoded without ε.
+     */
+    private void internSymbols() {
+        this.symbols = new SymbolInterner();
+        for (String terminal : this.setOfTerminals)
+            if (!terminal.equals("ε"))
+                symbols.intern(terminal);
+        symbols.intern("$");
+        for (String nonTerminal : this.setOfNonTerminals)
+            symbols.intern(nonTerminal);
+
+        this.productionsByStart = new HashMap<>();
+        for (Production production : this.setOfProductions)
+            this.productionsByStart.computeIfAbsent(production.getStart(), start -> new LinkedList<>()).add(production);
+
+        List<Integer> heads = new ArrayList<>();
+        List<int[]> bodies = new ArrayList<>();
+        heads.add(-1);
+        bodies.add(new int[0]);
+        for (Production production : this.setOfProductions)
+            for (List<String> rule : production.getRules()) {
+                heads.add(symbols.idOf(production.getStart()));
+                bodies.add(rule.stream().filter(symbol -> !symbol.equals("ε")).mapToInt(symbols::idOf).toArray());
+            }
+
+        this.ruleHeads = heads.stream().mapToInt(Integer::intValue).toArray();
+        this.ruleBodies = bodies.toArray(new int[0][]);
+        List<List<Integer>> byNonTerminal = new ArrayList<>();
+        for (int i = 0; i < this.setOfNonTerminals.size(); i++)
+            byNonTerminal.add(new ArrayList<>());
+        for (int number = 1; number < ruleHeads.length; number++)
+            byNonTerminal.get(ruleHeads[number] - getNonTerminalBase()).add(number);
+        this.rulesForNonTerminal = new int[byNonTerminal.size()][];
+        for (int i = 0; i < byNonTerminal.size(); i++)
+            this.rulesForNonTerminal[i] = byNonTerminal.get(i).stream().mapToInt(Integer::intValue).toArray();
     }
 
     public List<String> getSetOfNonTerminals() {
@@ -95,19 +141,64 @@ public class Grammar {
         return startingSymbol;
     }
 
+    // INT-BASED API (valid after readFromFile):
+
+    public SymbolInterner getSymbols() {
+        return symbols;
+    }
+
+    public int getEndMarkerId() {
+        return symbols.idOf("$");
+    }
+
+    public int getNonTerminalBase() {
+        return getEndMarkerId() + 1;
+    }
+
+    public boolean isTerminal(int id) {
+        return id < getEndMarkerId();
+    }
+
+    public boolean isNonTerminal(int id) {
+        return id >= getNonTerminalBase();
+    }
+
+    public int getStartingSymbolId() {
+        return symbols.idOf(startingSymbol);
+    }
+
+    /*
+     * Number of rules; rule numbers go from 1 to getRuleCount().
+     */
+    public int getRuleCount() {
+        return ruleHeads.length - 1;
+    }
+
+    public int getRuleHead(int number) {
+        return ruleHeads[number];
+    }
+
+    /*
+     * Encoded right-hand side of a rule, with ε removed (an ε-rule has an empty body).
+     */
+    public int[] getRuleBody(int number) {
+        return ruleBodies[number];
+    }
+
+    /*
+     * Numbers of the rules whose left-hand side is the given non-terminal id.
+     */
+    public int[] productionForNonTerminal(int nonTerminalId) {
+        return rulesForNonTerminal[nonTerminalId - getNonTerminalBase()];
+    }
+
      /*
      * Takes a non-terminal as inINPUT and returns a list of productions that have the specified non-terminal as their START SYMBOL.
      * Non-terminal define the structure and rules of a lenguage.
      * Non-terminals help specify the hierarchical structure of sentences or expressions in a language.
      */
     public List<Production> productionForNonTerminal(String nonTerminal) {
-        List<Production> productionsForNonTerminal = new LinkedList<>();
-        for (Production production : this.setOfProductions) {
-            if (production.getStart().equals(nonTerminal)) {
-                productionsForNonTerminal.add(production);
-            }
-        }
-        return productionsForNonTerminal;
+        return new LinkedList<>(productionsByStart.getOrDefault(nonTerminal, Collections.emptyList()));
     }
 
     /*
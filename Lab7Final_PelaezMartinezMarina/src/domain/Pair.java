@@ -1,5 +1,7 @@
 package domain;
 
+import java.util.Objects;
+
 /*
  * Marina Pelaez Martinez
  * 2024
@@ -22,4 +24,22 @@ public class Pair<T,Q> {
     public Q getValue() {
         return value;
     }
+
+    /*
+     * Two pairs are equal when both their keys and values are equal, so a Pair can be used as a hashed key (e.g. in the parse table).
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Pair))
+            return false;
+        Pair<?, ?> other = (Pair<?, ?>) o;
+        return Objects.equals(key, other.key) && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(key) + Objects.hashCode(value);
+    }
 }
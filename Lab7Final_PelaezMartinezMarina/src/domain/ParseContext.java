@@ -0,0 +1,67 @@
+package domain;
+
+import java.util.Arrays;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class ParseContext --> reusable buffers for one parse on a CompiledParseTable: the encoded input, the int stack and the derivation.
+ * The arrays only grow (doubling), so once they fit the longest input seen, parsing with the same context allocates nothing.
+ */
+
+public class ParseContext {
+
+    int[] input = new int[64];
+    int inputLength;
+    int[] stack = new int[64];
+    int[] derivation = new int[64];
+    int steps;
+    private boolean recordDerivation = true;
+
+    void ensureInput(int length) {
+        if (input.length < length)
+            input = new int[Math.max(length, input.length * 2)];
+    }
+
+    void ensureStack(int size) {
+        if (stack.length < size)
+            stack = Arrays.copyOf(stack, Math.max(size, stack.length * 2));
+    }
+
+    void addStep(int production) {
+        if (!recordDerivation)
+            return;
+        if (steps == derivation.length)
+            derivation = Arrays.copyOf(derivation, steps * 2);
+        derivation[steps++] = production;
+    }
+
+    /*
+     * When disabled the derivation is not kept, so streaming parses run in memory bounded by the stack depth.
+     */
+    public void setRecordDerivation(boolean recordDerivation) {
+        this.recordDerivation = recordDerivation;
+    }
+
+    public boolean isRecordDerivation() {
+        return recordDerivation;
+    }
+
+    /*
+     * Number of productions applied by the last parse.
+     */
+    public int getDerivationLength() {
+        return steps;
+    }
+
+    public int getDerivationStep(int index) {
+        return derivation[index];
+    }
+
+    /*
+     * Copy of the production numbers applied by the last parse.
+     */
+    public int[] getDerivation() {
+        return Arrays.copyOf(derivation, steps);
+    }
+}
@@ -0,0 +1,195 @@
+package domain;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class ParseTableCache --> keeps a binary copy of the CompiledParseTable of a grammar file next to it (<grammar>.ll1).
+ * The cache stores the SHA-256 of the grammar file; while it matches, the table is read back from a memory-mapped file
+ * instead of reading the grammar and computing First/Follow and the table again. Otherwise it is rebuilt and rewritten.
+ * Layout (big-endian ints): magic, version, hash, symbols (length + UTF-8 bytes each), "$" id, first non-terminal id,
+ * starting symbol id, table (rows, columns, cells), production bodies (count, then length + ids each).
+ */
+
+public class ParseTableCache {
+
+    private static final int MAGIC = 0x4C4C3154;
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".ll1";
+
+    /*
+     * Returns the compiled table of the grammar file, from the cache when it is up to date.
+     */
+    public CompiledParseTable load(String grammarFileName) throws IOException {
+        Path grammarFile = Path.of(grammarFileName);
+        Path cacheFile = grammarFile.resolveSibling(grammarFile.getFileName() + EXTENSION);
+        byte[] hash = hash(grammarFile);
+
+        if (Files.exists(cacheFile)) {
+            CompiledParseTable cached = read(cacheFile, hash);
+            if (cached != null)
+                return cached;
+        }
+
+        Grammar grammar = new Grammar(grammarFileName);
+        grammar.readFromFile();
+        CompiledParseTable table = CompiledParseTable.compile(grammar);
+        try {
+            write(cacheFile, hash, table);
+        } catch (IOException e) {
+            // e.g. a read-only directory: the table is still valid, it just is not cached for the next run
+            System.err.println("Could not write the parse table cache " + cacheFile + ": " + e.getMessage());
+        }
+        return table;
+    }
+
+    private byte[] hash(Path file) throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * Reads the cache file, or returns null if it is not a cache of this version, was built from a different grammar
+     * or is damaged (truncated, with counts and ids that do not fit, or not readable at all), so that load() rebuilds it.
+     */
+    private CompiledParseTable read(Path cacheFile, byte[] hash) {
+        try {
+            return readTable(cacheFile, hash);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private CompiledParseTable readTable(Path cacheFile, byte[] hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 + hash.length || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+            byte[] storedHash = new byte[hash.length];
+            buffer.get(storedHash);
+            if (!Arrays.equals(hash, storedHash))
+                return null;
+
+            SymbolInterner symbols = new SymbolInterner();
+            int symbolCount = count(buffer, Integer.BYTES);
+            for (int i = 0; i < symbolCount; i++) {
+                byte[] bytes = new byte[count(buffer, 1)];
+                buffer.get(bytes);
+                symbols.intern(new String(bytes, StandardCharsets.UTF_8));
+            }
+            int endMarker = buffer.getInt();
+            int nonTerminalBase = buffer.getInt();
+            int startSymbol = buffer.getInt();
+            check(symbols.size() == symbolCount && endMarker >= 0 && nonTerminalBase == endMarker + 1
+                    && startSymbol >= nonTerminalBase && startSymbol < symbolCount);
+
+            int rows = count(buffer, 0);
+            int columns = count(buffer, 0);
+            check(rows == symbolCount - nonTerminalBase && columns == endMarker + 1
+                    && (long) rows * columns * Integer.BYTES <= buffer.remaining());
+            int[][] table = new int[rows][columns];
+            for (int[] row : table)
+                readInts(buffer, row);
+            int[][] productionBodies = new int[count(buffer, Integer.BYTES)][];
+            for (int i = 0; i < productionBodies.length; i++) {
+                productionBodies[i] = new int[count(buffer, Integer.BYTES)];
+                readInts(buffer, productionBodies[i]);
+                for (int symbol : productionBodies[i])
+                    check(symbol >= 0 && symbol < symbolCount);
+            }
+            for (int[] row : table)
+                for (int cell : row)
+                    check(cell >= 0 && cell < productionBodies.length);
+            return new CompiledParseTable(symbols, endMarker, nonTerminalBase, startSymbol, table, productionBodies);
+        }
+    }
+
+    /*
+     * Reads a count and checks that it is not negative and that count * bytesPerItem bytes are left in the buffer,
+     * so a damaged file cannot make the reader allocate a huge or negative-sized array.
+     */
+    private int count(ByteBuffer buffer, int bytesPerItem) {
+        int count = buffer.getInt();
+        check(count >= 0 && (long) count * bytesPerItem <= buffer.remaining());
+        return count;
+    }
+
+    private void check(boolean condition) {
+        if (!condition)
+            throw new IllegalArgumentException("Damaged parse table cache");
+    }
+
+    /*
+     * Bulk copy through an int view of the mapped buffer, then moves the buffer past the copied ints.
+     */
+    private void readInts(ByteBuffer buffer, int[] destination) {
+        buffer.asIntBuffer().get(destination);
+        buffer.position(buffer.position() + destination.length * Integer.BYTES);
+    }
+
+    /*
+     * Writes to a temporary file first and then moves it over the cache, so a reader never sees a half-written cache.
+     * If writing fails the temporary file is deleted.
+     */
+    private void write(Path cacheFile, byte[] hash, CompiledParseTable table) throws IOException {
+        Path temporary = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+        try {
+            writeTable(temporary, hash, table);
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void writeTable(Path temporary, byte[] hash, CompiledParseTable table) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(hash);
+
+            SymbolInterner symbols = table.getSymbols();
+            out.writeInt(symbols.size());
+            for (int i = 0; i < symbols.size(); i++) {
+                byte[] bytes = symbols.symbolOf(i).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(table.getEndMarker());
+            out.writeInt(table.getNonTerminalBase());
+            out.writeInt(table.getStartSymbol());
+
+            int[][] cells = table.getTable();
+            out.writeInt(cells.length);
+            out.writeInt(table.getEndMarker() + 1);
+            for (int[] row : cells)
+                for (int cell : row)
+                    out.writeInt(cell);
+
+            int[][] productionBodies = table.getProductionBodies();
+            out.writeInt(productionBodies.length);
+            for (int[] body : productionBodies) {
+                out.writeInt(body.length);
+                for (int symbol : body)
+                    out.writeInt(symbol);
+            }
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package domain;
 
+import java.io.Reader;
 import java.util.*;
 
 /*
  * Marina Pelaez Martinez
  * 2024
  * Class Parser --> top-down (algo. de analisis de arriba hacia abajo) parsing algorithm for context-free grammars that include various methods and data structures for parsing and generating parsing tables.
+ * A Parser keeps the state of its own parses (alfa, beta, pi), so it is meant for one thread; the CompiledParseTable it builds
+ * is immutable and can be shared, e.g. by a BatchParser.
  */
 
 public class Parser {
+
+    /*
+     * Backends available for parseSequence: MAP walks the ParserOutput map, COMPILED runs on the dense int table.
+     */
+    public enum Backend { MAP, COMPILED }
+
     private Grammar grammar;
-    private Map<String, Set<String>> firstSet;
-    private Map<String, Set<String>> followSet;
-    private Map<Pair<String, List<String>>, Integer> productionsNumbered = new HashMap<>();
-    private static Stack<List<String>> rules = new Stack<>();
     private ParserOutput parserOutput = new ParserOutput();
     private Stack<String> alfa = new Stack<>();
     private Stack<String> beta = new Stack<>();
     private Stack<String> pi = new Stack<>();
+    private CompiledParseTable compiledTable;
+    private ParseContext context = new ParseContext();
+    private Backend backend = Backend.MAP;
+    private FirstFollow sets;
 
      /*
      * Notes:
@@ -32,191 +41,51 @@ public class Parser {
      */
     public Parser(Grammar grammar) {
         this.grammar = grammar;
-        this.firstSet = new HashMap<>();
-        this.followSet = new HashMap<>();
     }
 
      /*
      * Generates the First and Follow sets for the non-terminals in the grammar.
+     * They are kept as BitSets indexed by terminal id (see FirstFollow); the string maps are only built by the getters.
      */
     public void generateSets() {
-        generateFirstSet();
-        generateFollowSet();
-    }
-
-    // These methods compute the First and Follow sets for the non-terminals based on the grammar's rules and structure:
-    private void generateFirstSet() {
-        for (String nonTerminal : grammar.getSetOfNonTerminals()) {
-            firstSet.put(nonTerminal, this.firstOf(nonTerminal));
-        }
-    }
-
-    private void generateFollowSet() {
-        for (String nonTerminal : grammar.getSetOfNonTerminals()) {
-            followSet.put(nonTerminal, this.followOf(nonTerminal, nonTerminal));
-        }
-    }
-
-    /*
-     *  Assigns unique numbers to the grammar's production rules.
-     */
-    private void numberingProductions() {
-        int index = 1;
-        for (Production production: grammar.getSetOfProductions())
-            for (List<String> rule: production.getRules())
-                productionsNumbered.put(new Pair<>(production.getStart(), rule), index++);
-    }
-
-     /*
-     * Calculates the First set for a given non-terminal.
-     * Compute the set of terminals that can appear as the first symbol(s) of strings derived from the specified non-terminal symbol (nonTerminal).
-     * 
-     */
-    private Set<String> firstOf(String nonTerminal) {
-        if (firstSet.containsKey(nonTerminal))
-            return firstSet.get(nonTerminal);
-        Set<String> temp = new HashSet<>();
-        Set<String> terminals = grammar.getSetOfTerminals();
-        for (Production production : grammar.productionForNonTerminal(nonTerminal))
-            for (List<String> rule : production.getRules()) {
-                String firstSymbol = rule.get(0);
-                if (firstSymbol.equals("ε"))
-                    temp.add("ε");
-                else if (terminals.contains(firstSymbol))
-                    temp.add(firstSymbol);
-                else
-                    temp.addAll(firstOf(firstSymbol));
-            }
-        return temp;
-    }
-
-     /*
-     * The Follow set is important in predictive parsing and error recovery to determine when to pop symbols from the parsing stack and how to handle syntactic errors.
-     */
-    private Set<String> followOf(String nonTerminal, String initialNonTerminal) {
-        if (followSet.containsKey(nonTerminal))
-            return followSet.get(nonTerminal);
-        Set<String> temp = new HashSet<>();
-        Set<String> terminals = grammar.getSetOfTerminals();
-
-        if (nonTerminal.equals(grammar.getStartingSymbol()))
-            temp.add("$");
-
-        for (Production production : grammar.productionContainingNonTerminal(nonTerminal)) {
-            String productionStart = production.getStart();
-            for (List<String> rule : production.getRules()){
-                List<String> ruleConflict = new ArrayList<>();
-                ruleConflict.add(nonTerminal);
-                ruleConflict.addAll(rule);
-                if (rule.contains(nonTerminal) && !rules.contains(ruleConflict)) {
-                    rules.push(ruleConflict);
-                    int indexNonTerminal = rule.indexOf(nonTerminal);
-                    temp.addAll(followOperation(nonTerminal, temp, terminals, productionStart, rule, indexNonTerminal, initialNonTerminal));
-
-                    List<String> sublist = rule.subList(indexNonTerminal + 1, rule.size());
-                    if (sublist.contains(nonTerminal))
-                        temp.addAll(followOperation(nonTerminal, temp, terminals, productionStart, rule, indexNonTerminal + 1 + sublist.indexOf(nonTerminal), initialNonTerminal));
-
-                    rules.pop();
-                }
-            }
-        }
-
-        return temp;
-    }
-
-     /*
-     * Calculate and update the Follow set (temp) for the given nonTerminal symbol based on the context of a specific production rule within which the nonTerminal appears. 
-     * This method is used to handle different situations when determining what symbols can follow the nonTerminal within the context of the grammar.
-     */
-    private Set<String> followOperation(String nonTerminal, Set<String> temp, Set<String> terminals, String productionStart, List<String> rule, int indexNonTerminal, String initialNonTerminal) {
-        if (indexNonTerminal == rule.size() - 1) {
-            if (productionStart.equals(nonTerminal))
-                return temp;
-            if (!initialNonTerminal.equals(productionStart)){
-                temp.addAll(followOf(productionStart, initialNonTerminal));
-            }
-        }
-        else
-        {
-            String nextSymbol = rule.get(indexNonTerminal + 1);
-            if (terminals.contains(nextSymbol))
-                temp.add(nextSymbol);
-            else{
-                if (!initialNonTerminal.equals(nextSymbol)) {
-                    Set<String> fists = new HashSet<>(firstSet.get(nextSymbol));
-                    if (fists.contains("ε")) {
-                        temp.addAll(followOf(nextSymbol, initialNonTerminal));
-                        fists.remove("ε");
-                    }
-                    temp.addAll(fists);
-                }
-            }
-        }
-        return temp;
+        sets = new FirstFollow(grammar);
     }
 
      /*
      * This method creates a parsing table based on the computed First and Follow sets and assigns actions to table entries for parsing.
      * NOTE: the parsing table is a data structure used to guide the parsing process and determine which actions (such as shifting, reducing, or accepting) to take when parsing input based on the current state and lookahead symbol.
+     * Rule number n goes in M[A, b] for every terminal b of its predict set (a BitSet), so no First/Follow set is copied; on a conflict the first rule wins.
      */
     public void createParseTable() {
-        numberingProductions();
-
-        List<String> columnSymbols = new LinkedList<>(grammar.getSetOfTerminals());
-        columnSymbols.add("$");
+        compiledTable = new CompiledParseTable(grammar, sets);
+        SymbolInterner symbols = grammar.getSymbols();
 
         parserOutput.put(new Pair<>("$", "$"), new Pair<>(Collections.singletonList("acc"), -1));
         for (String terminal: grammar.getSetOfTerminals()) {
             parserOutput.put(new Pair<>(terminal, terminal), new Pair<>(Collections.singletonList("pop"), -1));
         }
 
-        productionsNumbered.forEach((key, value) -> {
-            String rowSymbol = key.getKey();
-            List<String> rule = key.getValue();
-            Pair<List<String>, Integer> parserOutputValue = new Pair<>(rule, value);
-
-            for (String columnSymbol : columnSymbols) {
-                Pair<String, String> parserOutputKey = new Pair<>(rowSymbol, columnSymbol);
-
-                if (rule.get(0).equals(columnSymbol) && !columnSymbol.equals("ε")) {
-                    parserOutput.put(parserOutputKey, parserOutputValue);
-                } else if (grammar.getSetOfNonTerminals().contains(rule.get(0))
-                        && firstSet.get(rule.get(0)).contains(columnSymbol)) {
-                    if (!parserOutput.containsKey(parserOutputKey)) {
+        int number = 1;
+        for (Production production : grammar.getSetOfProductions())
+            for (List<String> rule : production.getRules()) {
+                Pair<List<String>, Integer> parserOutputValue = new Pair<>(rule, number);
+                BitSet predict = sets.getPredict(number);
+                for (int terminal = predict.nextSetBit(0); terminal >= 0; terminal = predict.nextSetBit(terminal + 1)) {
+                    Pair<String, String> parserOutputKey = new Pair<>(production.getStart(), symbols.symbolOf(terminal));
+                    if (!parserOutput.containsKey(parserOutputKey))
                         parserOutput.put(parserOutputKey, parserOutputValue);
-                    }
-                }
-                else {
-                    if (rule.get(0).equals("ε")) {
-                        for (String b : followSet.get(rowSymbol)) {
-                            parserOutput.put(new Pair<>(rowSymbol, b), parserOutputValue);
-                        }
-                    } else {
-                        Set<String> firsts = new HashSet<>();
-                        for (String symbol : rule)
-                            if (grammar.getSetOfNonTerminals().contains(symbol))
-                                firsts.addAll(firstSet.get(symbol));
-                        if (firsts.contains("ε")) {
-                            for (String b : firstSet.get(rowSymbol)) {
-                                if (b.equals("ε"))
-                                    b = "$";
-                                parserOutputKey = new Pair<>(rowSymbol, b);
-                                if (!parserOutput.containsKey(parserOutputKey)) {
-                                    parserOutput.put(parserOutputKey, parserOutputValue);
-                                }
-                            }
-                        }
-                    }
                 }
+                number++;
             }
-        });
     }
 
     /*
      * This method performs the parsing of an input sequence using the parsing table and returns true if the input sequence is valid according to the grammar.
      */
     public boolean parseSequence(List<String> sequence) {
+        if (backend == Backend.COMPILED)
+            return parseCompiled(sequence);
+
         initializeStacks(sequence);
 
         boolean go = true;
@@ -268,6 +137,36 @@ public class Parser {
         return result;
     }
     
+    /*
+     * Parses the whitespace-separated tokens read from the reader without loading them first (always on the compiled table,
+     * since the MAP backend needs the whole input on its alfa stack). The derivation is not recorded, so memory stays constant.
+     * If createParseTable() has not been called yet, the compiled table is built first.
+     */
+    public boolean parseStream(Reader reader) {
+        ParseContext streamContext = new ParseContext();
+        streamContext.setRecordDerivation(false);
+        return compiledTable().parse(new TokenReader(reader), streamContext);
+    }
+
+    /*
+     * Parses the sequence on the compiled int table, reusing the same context (buffers) for every call.
+     */
+    private boolean parseCompiled(List<String> sequence) {
+        return compiledTable().parse(sequence, context);
+    }
+
+    /*
+     * The compiled table, built (with the First/Follow sets if they were not generated) the first time it is needed.
+     */
+    private CompiledParseTable compiledTable() {
+        if (compiledTable == null) {
+            if (sets == null)
+                generateSets();
+            compiledTable = new CompiledParseTable(grammar, sets);
+        }
+        return compiledTable;
+    }
+
     /*
      * This method initializes the parsing stacks (alfa, beta, and pi) with the input sequence and the starting symbol.
      */
@@ -295,14 +194,37 @@ public class Parser {
 
     // GETTERS:
     public Map<String, Set<String>> getFirstSet() {
-        return firstSet;
+        return sets.firstSetView();
     }
 
     public Map<String, Set<String>> getFollowSet() {
-        return followSet;
+        return sets.followSetView();
+    }
+
+    public FirstFollow getSets() {
+        return sets;
     }
 
     public ParserOutput getParserOutput() {
         return parserOutput;
     }
+
+    /*
+     * Context of the last COMPILED parse (its derivation).
+     */
+    public ParseContext getContext() {
+        return context;
+    }
+
+    public CompiledParseTable getCompiledTable() {
+        return compiledTable;
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public void setBackend(Backend backend) {
+        this.backend = backend;
+    }
 }
@@ -17,30 +17,15 @@ public class ParserOutput {
         table.put(key, value);
     }
 
+    /*
+     * Pair has value semantics, so the lookup is a single hashed access instead of a scan over every entry.
+     */
     public Pair<List<String>, Integer> get(Pair<String, String> key) {
-        for (Map.Entry<Pair<String, String>, Pair<List<String>, Integer>> entry : table.entrySet()) {
-            if (entry.getValue() != null) {
-                Pair<String, String> currentKey = entry.getKey();
-                Pair<List<String>, Integer> currentValue = entry.getValue();
-
-                if (currentKey.getKey().equals(key.getKey()) && currentKey.getValue().equals(key.getValue())) {
-                    return currentValue;
-                }
-            }
-        }
-
-        return null;
+        return table.get(key);
     }
 
     public boolean containsKey(Pair<String, String> key) {
-        boolean result = false;
-        for (Pair<String, String> currentKey : table.keySet()) {
-            if (currentKey.getKey().equals(key.getKey()) && currentKey.getValue().equals(key.getValue())) {
-                result = true;
-            }
-        }
-
-        return result;
+        return table.containsKey(key);
     }
 
     @Override
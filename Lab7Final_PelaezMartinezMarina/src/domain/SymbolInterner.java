@@ -0,0 +1,52 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class SymbolInterner --> maps every grammar symbol to a compact int id (in the order they are interned) and back.
+ * Ids are assigned once at load time so the hot paths (First/Follow, parse table, parsing) can work on ints instead of strings.
+ */
+
+public class SymbolInterner {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> symbols = new ArrayList<>();
+
+    /*
+     * Returns the id of the symbol, assigning the next free one if it was not interned yet.
+     */
+    public int intern(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null)
+            return id;
+        ids.put(symbol, symbols.size());
+        symbols.add(symbol);
+        return symbols.size() - 1;
+    }
+
+    /*
+     * Returns the id of the symbol, or -1 if it is not part of the grammar.
+     */
+    public int idOf(String symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    public String symbolOf(int id) {
+        return symbols.get(id);
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    @Override
+    public String toString() {
+        return symbols.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package domain;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*
+ * Marina Pelaez Martinez
+ * 2024
+ * Class TokenReader --> lazily splits a character stream into whitespace-separated tokens.
+ * Only the token being built is held in memory, so it can feed the parser with inputs of any size.
+ */
+
+public class TokenReader implements Iterator<String> {
+
+    private final Reader reader;
+    private final StringBuilder current = new StringBuilder();
+    private String next;
+    private boolean finished;
+
+    public TokenReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished)
+            next = readToken();
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        String token = next;
+        next = null;
+        return token;
+    }
+
+    private String readToken() {
+        try {
+            current.setLength(0);
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (Character.isWhitespace(c)) {
+                    if (current.length() > 0)
+                        return current.toString();
+                } else {
+                    current.append((char) c);
+                }
+            }
+            finished = true;
+            return current.length() > 0 ? current.toString() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}